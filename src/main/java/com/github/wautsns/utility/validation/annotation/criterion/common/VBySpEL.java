@@ -28,15 +28,14 @@ import java.util.function.Predicate;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.expression.Expression;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import com.github.wautsns.utility.validation.annotation.criterion.common.VBySpEL.VBySpELValueHandlers;
 import com.github.wautsns.utility.validation.annotation.helper.ACriterion;
 import com.github.wautsns.utility.validation.core.criterion.Criterion.Attributes;
 import com.github.wautsns.utility.validation.core.criterion.handlers.Stringifier;
 import com.github.wautsns.utility.validation.core.criterion.handlers.ValueHandlers;
-import com.github.wautsns.utility.validation.core.validation.VEnv;
+import com.github.wautsns.utility.validation.core.validation.VSpEL;
+import com.github.wautsns.utility.validation.core.validation.VSpEL.CompilableExpression;
 
 /**
  *
@@ -71,8 +70,8 @@ public @interface VBySpEL {
 
 		@Override
 		public Predicate<Object> getPredicate(Attributes attrs) {
-			Expression expr = new SpelExpressionParser().parseExpression(attrs.get("expr"));
-			return v -> expr.getValue(VEnv.SpEL_CTX, v, boolean.class);
+			CompilableExpression expr = VSpEL.parse(attrs.get("expr"), attrs.getValueType().resolve());
+			return v -> expr.getValue(v, boolean.class);
 		}
 
 		@Override
@@ -80,8 +79,8 @@ public @interface VBySpEL {
 			String stringifier = attrs.get("stringifier");
 			if (stringifier.isEmpty())
 				return null;
-			Expression expr = new SpelExpressionParser().parseExpression(stringifier);
-			return v -> expr.getValue(VEnv.SpEL_CTX, v, String.class);
+			CompilableExpression expr = VSpEL.parse(stringifier, attrs.getValueType().resolve());
+			return v -> expr.getValue(v, String.class);
 		}
 	}
 
@@ -24,11 +24,12 @@ import java.lang.annotation.Documented;
 import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
-import java.util.function.Predicate;
+import java.util.function.LongPredicate;
 
 import com.github.wautsns.utility.validation.annotation.criterion.math.VMin.VMinValueHandlers;
 import com.github.wautsns.utility.validation.annotation.helper.ACriterion;
 import com.github.wautsns.utility.validation.core.criterion.Criterion.Attributes;
+import com.github.wautsns.utility.validation.core.criterion.handlers.LongRange;
 import com.github.wautsns.utility.validation.core.criterion.handlers.ValueHandlers4LongInteger;
 
 /**
@@ -56,9 +57,9 @@ public @interface VMin {
 	class VMinValueHandlers implements ValueHandlers4LongInteger {
 
 		@Override
-		public Predicate<Long> getPredicate(Attributes attrs) {
+		public LongPredicate getLongPredicate(Attributes attrs) {
 			long min = attrs.get("value");
-			return v -> v >= min;
+			return LongRange.atLeast(min);
 		}
 	}
 
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.aop;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+import com.github.wautsns.utility.validation.core.validation.MethodValidationPlan;
+import com.github.wautsns.utility.validation.core.validation.VGroups;
+import com.github.wautsns.utility.validation.core.validation.VMode;
+import com.github.wautsns.utility.validation.core.validation.ViolationCollector;
+import com.github.wautsns.utility.validation.exception.violation.MethodViolationException;
+
+/**
+ * 校验方法参数与返回值的拦截器
+ * 
+ * <p> 每个方法的参数注解与方法注解仅在首次调用时分析, 校验计划按方法缓存. 此后的调用只需一次缓存查找与约束本身的开销,
+ * 无约束的方法直接放行, 校验通过时不会分配对象.
+ * 
+ * <p> 分析的是 {@link MethodInvocation#getMethod()} 返回的方法, 基于接口的代理需将约束注解声明在接口方法上.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class MethodValidationInterceptor implements MethodInterceptor {
+
+	private final Class<?>[] groups;
+	private final VMode mode;
+	private final ConcurrentHashMap<Method, MethodValidationPlan> plans = new ConcurrentHashMap<>();
+
+	public MethodValidationInterceptor() {
+		this(VMode.COLLECT_ALL, VGroups.DEFAULT_GROUPS);
+	}
+
+	/**
+	 * @param mode 校验模式, 参数与返回值分别生效
+	 * @param groups 组, 仅校验组与之存在交集的约束, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 */
+	public MethodValidationInterceptor(VMode mode, Class<?>... groups) {
+		this.mode = mode;
+		this.groups = groups.clone();
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		MethodValidationPlan plan = getPlan(invocation.getMethod());
+		if (plan.hasParameterCriteria())
+			_check(plan, invocation.getArguments(), null, false);
+		Object returnValue = invocation.proceed();
+		if (plan.hasReturnValueCriteria())
+			_check(plan, null, returnValue, true);
+		return returnValue;
+	}
+
+	/**
+	 * 获取方法的校验计划, 首次获取时分析
+	 * 
+	 * @param method 方法
+	 * @return 校验计划
+	 */
+	public MethodValidationPlan getPlan(Method method) {
+		MethodValidationPlan plan = plans.get(method);
+		if (plan != null) return plan;
+		return plans.computeIfAbsent(method, m -> MethodValidationPlan.analyze(m, groups));
+	}
+
+	private void _check(MethodValidationPlan plan, Object[] args, Object returnValue, boolean isReturnValue) {
+		ViolationCollector collector = ViolationCollector.acquire();
+		try {
+			if (isReturnValue)
+				plan.validateReturnValue(returnValue, collector, mode);
+			else
+				plan.validateParameters(args, collector, mode);
+			if (collector.isEmpty()) return;
+			List<CriterionViolation> violations = collector.toResult();
+			throw new MethodViolationException(plan.getMethod(), violations, isReturnValue);
+		} finally {
+			collector.release();
+		}
+	}
+
+}
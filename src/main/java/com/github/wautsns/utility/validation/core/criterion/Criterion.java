@@ -18,30 +18,44 @@ package com.github.wautsns.utility.validation.core.criterion;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Repeatable;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.expression.Expression;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
 
+import com.github.wautsns.utility.validation.annotation.criterion.common.VNotNull.VNotNullValueHandleres;
 import com.github.wautsns.utility.validation.annotation.helper.ACriterion;
 import com.github.wautsns.utility.validation.annotation.helper.ASpecify;
+import com.github.wautsns.utility.validation.core.criterion.handlers.LongRange;
+import com.github.wautsns.utility.validation.core.criterion.handlers.PrimitiveValueHandlers;
 import com.github.wautsns.utility.validation.core.criterion.handlers.Stringifier;
 import com.github.wautsns.utility.validation.core.criterion.handlers.ValueHandlers;
+import com.github.wautsns.utility.validation.core.criterion.handlers.ValueHandlers4LongInteger;
 import com.github.wautsns.utility.validation.core.criterion.handlers.ValueHandlers4Marker;
-import com.github.wautsns.utility.validation.core.validation.VEnv;
 import com.github.wautsns.utility.validation.core.validation.VGroups;
+import com.github.wautsns.utility.validation.core.validation.VMode;
+import com.github.wautsns.utility.validation.core.validation.VSpEL;
+import com.github.wautsns.utility.validation.core.validation.VSpEL.CompilableExpression;
 import com.github.wautsns.utility.validation.exception.initialization.InitializationException;
 
 import lombok.AccessLevel;
@@ -62,10 +76,27 @@ public class Criterion {
 
 	private Attributes attrs;
 
+	private boolean nullable;
 	private Converter converter;
 	private Predicate predicate;
+	private ToLongFunction longConverter;
+	private LongPredicate longPredicate;
 	private Stringifier stringifier;
 	private CriterionViolation.Template template;
+	/** 由同一注解展开的约束共享的根约束, 根约束为自身 */
+	private Criterion root;
+	/** 被合并的约束, 按原顺序排列 */
+	private Criterion[] fused;
+	/** depth 为空时为 {@code null} */
+	private DepthTraversal traversal;
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public String getPosition() {
+		return position;
+	}
 
 	public String getDepth() {
 		return attrs.depth;
@@ -75,20 +106,159 @@ public class Criterion {
 		return attrs.groups;
 	}
 
+	/**
+	 * 获取组掩码
+	 * 
+	 * @return 组掩码
+	 * @see VGroups#maskOf(Class[])
+	 */
+	public long getGroupMask() {
+		return attrs.groupMask;
+	}
+
 	public int getOrder() {
 		return attrs.order;
 	}
 
+	/**
+	 * 是否需要校验 {@code null}
+	 * 
+	 * <p> 仅 {@link VNotNullValueHandleres} 需要, 其余约束遇到 {@code null} 时视为通过
+	 * 
+	 * @return 若需要校验 {@code null} 则返回 {@code true}
+	 */
+	public boolean isNullable() {
+		return nullable;
+	}
+
+	/**
+	 * 获取值转换器
+	 * 
+	 * @return 值转换器, 可能为 {@code null}
+	 */
+	public Converter<Object, Object> getConverter() {
+		return converter;
+	}
+
+	public Predicate<Object> getPredicate() {
+		return predicate;
+	}
+
+	/**
+	 * 获取长整数值转换器
+	 * 
+	 * @return 长整数值转换器, 若值处理器不是 {@link PrimitiveValueHandlers.OfLong} 则为 {@code null}
+	 */
+	public ToLongFunction<Object> getLongConverter() {
+		return longConverter;
+	}
+
+	public LongPredicate getLongPredicate() {
+		return longPredicate;
+	}
+
+	/**
+	 * 是否可以直接对长整数值执行约束, 即 depth 为空, 且长整数值转换器仅做数值转换
+	 * 
+	 * @return 若可以则返回 {@code true}
+	 * @see #test(long)
+	 */
+	public boolean isLongValued() {
+		return traversal == null && longPredicate != null
+			&& (longConverter == ValueHandlers4LongInteger.OF_LONG || longConverter == ValueHandlers4LongInteger.OF_NUMBER);
+	}
+
+	/**
+	 * 执行约束, 若 depth 非空, 则对 {@code target} 中的每个元素执行约束
+	 * 
+	 * @param target 待校验的值
+	 * @param violations 违规信息
+	 * @param limit 上限, {@code violations} 的大小达到上限后停止
+	 * @return 若未达到上限则返回 {@code true}
+	 */
+	public boolean test(Object target, List<CriterionViolation> violations, int limit) {
+		if (traversal != null)
+			return traversal.traverse(this, target, violations, limit);
+		CriterionViolation violation = test(target);
+		if (violation == null) return true;
+		violations.add(violation);
+		return violations.size() < limit;
+	}
+
+	/**
+	 * 对单个值执行约束, 不考虑 depth
+	 * 
+	 * <p> 启用 {@link CriterionMetrics} 时, 执行耗时与结果会被记录
+	 * 
+	 * @param target 待校验的值
+	 * @return 违规信息, 若通过则返回 {@code null}
+	 */
 	public CriterionViolation test(Object target) {
+		if (!CriterionMetrics.InstalledMetrics.ENABLED) return _test(target);
+		long start = System.nanoTime();
+		CriterionViolation violation = _test(target);
+		_record(System.nanoTime() - start, violation);
+		return violation;
+	}
+
+	/**
+	 * 对长整数值执行约束, 跳过转换器, 仅适用于 {@link #isLongValued()} 成立的约束
+	 * 
+	 * @param value 待校验的值
+	 * @return 违规信息, 若通过则返回 {@code null}
+	 */
+	public CriterionViolation test(long value) {
+		if (!CriterionMetrics.InstalledMetrics.ENABLED) return longPredicate.test(value) ? null : violate(value);
+		long start = System.nanoTime();
+		CriterionViolation violation = longPredicate.test(value) ? null : violate(value);
+		_record(System.nanoTime() - start, violation);
+		return violation;
+	}
+
+	/** 合并的约束按部分记录, 耗时均分, 违规仅计入未通过的部分 */
+	private void _record(long nanos, CriterionViolation violation) {
+		CriterionMetrics metrics = CriterionMetrics.InstalledMetrics.INSTANCE;
+		if (fused == null) {
+			metrics.record(this, nanos, violation != null);
+			return;
+		}
+		Criterion failed = (violation == null) ? null : _failedPart((Long) violation.getValue());
+		for (Criterion part : fused)
+			metrics.record(part, nanos / fused.length, part == failed);
+	}
+
+	/** 合并的约束中第一个未通过的部分 */
+	private Criterion _failedPart(long value) {
+		for (Criterion part : fused)
+			if (!part.longPredicate.test(value)) return part;
+		throw new IllegalStateException("值 " + value + " 未违反任何被合并的约束");
+	}
+
+	private CriterionViolation _test(Object target) {
+		if (target == null && !nullable) return null;
+		if (longPredicate != null) {
+			long value = longConverter.applyAsLong(target);
+			return longPredicate.test(value) ? null : violate(value);
+		}
 		Object value = (converter == null) ? target : converter.convert(target);
-		return predicate.test(value)
-			? null
-			: template.generate(
-				(stringifier == null) ? Stringifier.simple(value) : stringifier.stringify(value));
+		return predicate.test(value) ? null : violate(value);
+	}
+
+	/**
+	 * 生成违规信息
+	 * 
+	 * @param value 已转换的值, 即未通过 {@link #getPredicate()} 的值
+	 * @return 违规信息
+	 */
+	public CriterionViolation violate(Object value) {
+		// 报告未通过的约束, 保持与合并前一致的违规信息
+		if (fused != null) return _failedPart((Long) value).violate(value);
+		return template.generate(value, stringifier);
 	}
 
 	@Override
 	public String toString() {
+		if (fused != null) return Arrays.toString(fused);
 		StringBuilder bder = new StringBuilder("\n");
 		bder.append("type = ").append(type.getSimpleName());
 		if (attrs.rootOwner != type)
@@ -111,13 +281,24 @@ public class Criterion {
 		private Class<?> rootOwner;
 		private String depth;
 		private Class<?>[] groups;
+		private long groupMask;
 		private int order;
 		private HashMap<String, Object> data;
+		private ResolvableType valueType;
 
 		public <T> T get(String name) {
 			return (T) data.get(name);
 		}
 
+		/**
+		 * 获取值的类型, 即按 depth 展开后待校验元素的类型
+		 * 
+		 * @return 值的类型
+		 */
+		public ResolvableType getValueType() {
+			return valueType;
+		}
+
 		private static final HashMap<String, Object> _EMPTY = new HashMap<>(0);
 
 		private String _minimizeAndReturnMessage() {
@@ -133,38 +314,22 @@ public class Criterion {
 			return message;
 		}
 
-		private static Attributes _of(Attributes rootAttrs, MetaData.MetaAttrs metaAttrs, Annotation anno) {
+		private static Attributes _of(Attributes rootAttrs, Class<?> owner, HashMap<String, Object> data) {
 			boolean isRoot = rootAttrs == null;
 			Attributes attrs = new Attributes();
-			attrs.rootOwner = isRoot ? metaAttrs.owner : rootAttrs.rootOwner;
-			attrs.data = new HashMap<>(metaAttrs.size(), 1f);
-			metaAttrs.forEach((name, attr) -> attrs.data.put(name, attr.getValue(anno)));
+			attrs.rootOwner = isRoot ? owner : rootAttrs.rootOwner;
+			attrs.data = data;
 			_adjustGroups(attrs);
-			_checkAndAdjustDepth(isRoot ? null : rootAttrs.depth, metaAttrs, attrs);
+			_checkAndAdjustDepth(isRoot ? null : rootAttrs.depth, attrs);
 			return attrs;
 		}
 
 		private static void _adjustGroups(Attributes attrs) {
-			LinkedList<Class<?>> groups = Arrays.stream((Class<?>[]) attrs.data.remove("groups"))
-				.distinct().collect(Collectors.toCollection(LinkedList::new));
-			for (int i = 0; i < groups.size();) {
-				Class<?> group = groups.get(i);
-				Class<?>[] interfaces = group.getInterfaces();
-				if (interfaces.length == 0)
-					i++;
-				else {
-					groups.remove(i);
-					for (Class<?> curr : interfaces)
-						if (!groups.contains(curr))
-							groups.add(curr);
-				}
-			}
-			attrs.groups = groups.isEmpty()
-				? VGroups.DEFAULT_GROUPS
-				: groups.toArray(new Class<?>[groups.size()]);
+			attrs.groups = VGroups.flatten((Class<?>[]) attrs.data.remove("groups"));
+			attrs.groupMask = VGroups.maskOf(attrs.groups);
 		}
 
-		private static void _checkAndAdjustDepth(String rootDepth, MetaData.MetaAttrs metaAttrs, Attributes attrs) {
+		private static void _checkAndAdjustDepth(String rootDepth, Attributes attrs) {
 			attrs.depth = (String) attrs.data.remove("depth");
 			attrs.depth = attrs.depth.toLowerCase();
 			if (!attrs.depth.matches("[ekvc]*"))
@@ -173,6 +338,50 @@ public class Criterion {
 		}
 	}
 
+	/**
+	 * 约束定义, 即属性值均已确定的约束注解
+	 * 
+	 * <p> 由编译期生成的校验计划使用, 以跳过 {@link MetaData} 对约束注解的反射分析
+	 * 
+	 * @see Analyzer#analyze(String, ResolvableType, List)
+	 */
+	public static class Definition {
+
+		private Class<? extends Annotation> type;
+		/** 是否与根约束共用 message, 根约束自身忽略该值 */
+		private boolean sharesRootMessage;
+		private HashMap<String, Object> data = new HashMap<>(8, 1f);
+
+		public Definition(Class<? extends Annotation> type, boolean sharesRootMessage) {
+			this.type = type;
+			this.sharesRootMessage = sharesRootMessage;
+		}
+
+		/**
+		 * 指定属性值, 需包含 message, groups, depth, order 在内的所有属性
+		 * 
+		 * @param name 属性名
+		 * @param value 属性值
+		 * @return 自身
+		 */
+		public Definition with(String name, Object value) {
+			data.put(name, value);
+			return this;
+		}
+
+		public Class<? extends Annotation> getType() {
+			return type;
+		}
+
+		public boolean isSharesRootMessage() {
+			return sharesRootMessage;
+		}
+
+		public Map<String, Object> getData() {
+			return Collections.unmodifiableMap(data);
+		}
+	}
+
 	public static class MetaData {
 
 		private Class<?> type;
@@ -273,9 +482,27 @@ public class Criterion {
 			return Instances.get(type, null);
 		}
 
+		/** 值处理器, 按约束注解类型缓存, 同一约束注解的所有约束共享 */
+		private static final ClassValue<ValueHandlers<?>> VALUE_HANDLERS = new ClassValue<ValueHandlers<?>>() {
+			@Override
+			protected ValueHandlers<?> computeValue(Class<?> type) {
+				ACriterion config = type.getDeclaredAnnotation(ACriterion.class);
+				if (config == null)
+					throw new InitializationException("注解[%s]并不是一个约束注解", type);
+				try {
+					return config.valueHandlers().newInstance();
+				} catch (ReflectiveOperationException e) {
+					throw new InitializationException(e, "初始化 ValueHandlers 失败");
+				}
+			}
+		};
+
 		private static class Instances {
 
-			private static final HashMap<Class<?>, MetaData> INSTANCES = new HashMap<>();
+			/** 仅存放已完成初始化的元数据 */
+			private static final ConcurrentHashMap<Class<?>, MetaData> INSTANCES = new ConcurrentHashMap<>();
+			/** 初始化锁, 仅在元数据未初始化时获取 */
+			private static final Object INITIALIZATION_LOCK = new Object();
 
 			public static MetaData get(Class<?> type, List<Class<?>> chain) {
 				if (!type.isAnnotation()) return null;
@@ -283,17 +510,22 @@ public class Criterion {
 				if (instance != null) return instance;
 				ACriterion config = type.getDeclaredAnnotation(ACriterion.class);
 				if (config == null) return null;
-				if (chain == null) chain = new LinkedList<>();
-				_checkCircularChain(type, chain);
-				try {
-					instance = _newSimpleMetaData(type, config);
-					_initDirectPath(instance, chain);
-					_replaceToCompletePath(instance, chain);
-				} catch (InitializationException e) {
-					throw new InitializationException(e, "初始化约束[%s]失败", type);
+				// 可重入, 关联约束的递归初始化在同一线程中完成, 循环初始化链仍由 _checkCircularChain 检测
+				synchronized (INITIALIZATION_LOCK) {
+					instance = INSTANCES.get(type);
+					if (instance != null) return instance;
+					if (chain == null) chain = new LinkedList<>();
+					_checkCircularChain(type, chain);
+					try {
+						instance = _newSimpleMetaData(type, config);
+						_initDirectPath(instance, chain);
+						_replaceToCompletePath(instance, chain);
+					} catch (InitializationException e) {
+						throw new InitializationException(e, "初始化约束[%s]失败", type);
+					}
+					INSTANCES.put(type, instance);
+					return instance;
 				}
-				INSTANCES.put(type, instance);
-				return instance;
 			}
 
 			private static void _checkCircularChain(Class<?> criterionAnnoType, List<Class<?>> chain) {
@@ -423,16 +655,14 @@ public class Criterion {
 
 			private static MetaAttr _analyzeSpelNMV(Class<?> root, String[] nmv, Class<?> type) {
 				try {
-					Expression expr = new SpelExpressionParser().parseExpression(nmv[2]);
+					CompilableExpression expr = VSpEL.parse(nmv[2], SpelCompilerMode.OFF);
 					if (type == null) {
 						if ("message".equals(nmv[0]) || "depth".equals(nmv[0]))
 							type = String.class;
 						else if ("groups".equals(nmv[0]))
 							type = Class[].class;
 					}
-					Object value = (type == null)
-						? expr.getValue(VEnv.SpEL_CTX)
-						: expr.getValue(VEnv.SpEL_CTX, type);
+					Object value = expr.getValue(type);
 					return new MetaAttr(root, value);
 				} catch (RuntimeException e) {
 					throw new InitializationException(e, "无法解析 SpEL 表达式: %s", nmv[2]);
@@ -462,6 +692,8 @@ public class Criterion {
 
 	public static class Analyzer {
 
+		private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
 		public static LinkedList<Criterion> analyzeAnnosOn(Class<?> clazz) {
 			return analyze(
 				clazz.getSimpleName(),
@@ -470,29 +702,72 @@ public class Criterion {
 		}
 
 		public static LinkedList<Criterion> analyzeAnnosOn(Field field) {
-			return analyze(
-				field.getDeclaringClass().getSimpleName() + '.' + field.getName(),
-				ResolvableType.forField(field),
-				field.getDeclaredAnnotations());
+			return analyze(positionOf(field), ResolvableType.forField(field), field.getDeclaredAnnotations());
 		}
 
 		public static LinkedList<Criterion> analyzeAnnosOn(Method method) {
 			if (method.getReturnType() == void.class || method.getParameterCount() != 0)
 				return null;
-			String name = method.getName();
-			if (name.matches("get[A-Z]"))
-				name = name.substring(3);
-			else if (name.matches("is[A-Z]*"))
-				name = name.substring(2);
-			char[] chars = name.toCharArray();
-			chars[0] = Character.toLowerCase(chars[0]);
-			name = new String(chars);
+			return analyze(positionOf(method), ResolvableType.forMethodReturnType(method),
+				method.getDeclaredAnnotations());
+		}
+
+		/**
+		 * 分析方法参数上的约束注解, 位置如 {@code UserService.create.name}, 无法获取参数名时使用 {@code arg0} 等
+		 * 
+		 * @param method 方法
+		 * @param index 参数下标
+		 * @return 已排序的约束
+		 */
+		public static LinkedList<Criterion> analyzeAnnosOn(Method method, int index) {
+			MethodParameter parameter = new MethodParameter(method, index);
+			parameter.initParameterNameDiscovery(PARAMETER_NAME_DISCOVERER);
+			String name = parameter.getParameterName();
 			return analyze(
-				method.getDeclaringClass().getSimpleName() + '.' + name,
-				ResolvableType.forMethodReturnType(method),
+				_positionOf(method) + '.' + ((name == null) ? "arg" + index : name),
+				ResolvableType.forMethodParameter(parameter),
+				parameter.getParameterAnnotations());
+		}
+
+		/**
+		 * 分析方法上的约束注解, 约束作用于返回值
+		 * 
+		 * <p> 与 {@link #analyzeAnnosOn(Method)} 不同, 方法可以有参数, 位置如 {@code UserService.create.return}
+		 * 
+		 * @param method 方法
+		 * @return 已排序的约束, 无返回值时为空
+		 */
+		public static LinkedList<Criterion> analyzeReturnValueOf(Method method) {
+			if (method.getReturnType() == void.class) return new LinkedList<>();
+			return analyze(_positionOf(method) + ".return", ResolvableType.forMethodReturnType(method),
 				method.getDeclaredAnnotations());
 		}
 
+		/** 方法的位置, 如 {@code UserService.create}, 与 {@link #positionOf(Member)} 不同, 不会去除 getter 的前缀 */
+		private static String _positionOf(Method method) {
+			return method.getDeclaringClass().getSimpleName() + '.' + method.getName();
+		}
+
+		/**
+		 * 获取成员的位置, 如 {@code User.name}
+		 * 
+		 * @param member 字段或 getter
+		 * @return 位置
+		 */
+		public static String positionOf(Member member) {
+			String name = member.getName();
+			if (member instanceof Method) {
+				if (name.matches("get[A-Z]"))
+					name = name.substring(3);
+				else if (name.matches("is[A-Z]*"))
+					name = name.substring(2);
+				char[] chars = name.toCharArray();
+				chars[0] = Character.toLowerCase(chars[0]);
+				name = new String(chars);
+			}
+			return member.getDeclaringClass().getSimpleName() + '.' + name;
+		}
+
 		public static LinkedList<Criterion> analyze(
 				String position, ResolvableType resolvableType, Annotation[] annotations) {
 			LinkedList<Criterion> criteria = new LinkedList<>();
@@ -505,7 +780,64 @@ public class Criterion {
 						position, annotation);
 				}
 			}
-			return criteria;
+			criteria.sort(Comparator.comparingInt(Criterion::getOrder));
+			return _fuse(criteria);
+		}
+
+		/**
+		 * 合并相邻且兼容的长整数区间约束, 如 {@code @VPositive} 展开后的 {@code @VMin} 与 {@code @VMax}
+		 * 
+		 * <p> 仅合并由同一注解展开的一对下界与上界, 且区间不为空. 此时任意值至多违反其中一个约束,
+		 * 违规信息与合并前一致. 不同注解的约束不会被合并, 以免 {@link VMode#COLLECT_ALL} 丢失违规信息.
+		 */
+		private static LinkedList<Criterion> _fuse(LinkedList<Criterion> criteria) {
+			LinkedList<Criterion> fused = new LinkedList<>();
+			for (Criterion criterion : criteria) {
+				Criterion last = fused.peekLast();
+				if (last != null && _isFusible(last, criterion))
+					fused.set(fused.size() - 1, _newFusedCriterion(last, criterion));
+				else
+					fused.add(criterion);
+			}
+			return fused;
+		}
+
+		private static boolean _isFusible(Criterion a, Criterion b) {
+			if (a.root != b.root || a.fused != null || b.fused != null) return false;
+			if (!(a.longPredicate instanceof LongRange && b.longPredicate instanceof LongRange)) return false;
+			LongRange x = (LongRange) a.longPredicate, y = (LongRange) b.longPredicate;
+			LongRange lower = _isLowerBound(x) ? x : y, upper = (lower == x) ? y : x;
+			return _isLowerBound(lower) && _isUpperBound(upper) && lower.getMin() <= upper.getMax()
+				&& a.longConverter == b.longConverter
+				&& a.position.equals(b.position)
+				&& a.attrs.depth.equals(b.attrs.depth)
+				&& a.attrs.order == b.attrs.order
+				&& Arrays.equals(a.attrs.groups, b.attrs.groups);
+		}
+
+		private static boolean _isLowerBound(LongRange range) {
+			return range.getMax() == Long.MAX_VALUE;
+		}
+
+		private static boolean _isUpperBound(LongRange range) {
+			return range.getMin() == Long.MIN_VALUE;
+		}
+
+		private static Criterion _newFusedCriterion(Criterion a, Criterion b) {
+			Criterion criterion = new Criterion();
+			criterion.type = a.type;
+			criterion.root = a.root;
+			criterion.position = a.position;
+			criterion.attrs = a.attrs;
+			criterion.template = a.template;
+			criterion.traversal = a.traversal;
+			criterion.converter = a.converter;
+			criterion.longConverter = a.longConverter;
+			LongRange range = ((LongRange) a.longPredicate).intersect((LongRange) b.longPredicate);
+			criterion.longPredicate = range;
+			criterion.predicate = (Predicate<Long>) range::test;
+			criterion.fused = new Criterion[] { a, b };
+			return criterion;
 		}
 
 		private static LinkedList<Criterion> _analyze(
@@ -513,54 +845,150 @@ public class Criterion {
 			LinkedList<Criterion> criteria = new LinkedList<>();
 			MetaData root = MetaData.of(annotation.annotationType());
 			if (root == null) {
-				Class<? extends Annotation> annoType = annotation.annotationType();
-				Annotation[] annotations;
-				try {
-					Method attr = annoType.getDeclaredMethod("value");
-					Class<?> attrType = attr.getReturnType();
-					if (!attrType.isArray()) return criteria;
-					Class<?> attrComponentType = attrType.getComponentType();
-					if (!attrComponentType.isAnnotation()) return criteria;
-					Repeatable repeatable = attrComponentType.getDeclaredAnnotation(Repeatable.class);
-					if (repeatable == null || repeatable.value() != annoType) return criteria;
-					attr.setAccessible(true);
-					annotations = (Annotation[]) attr.invoke(annotation);
-				} catch (Exception e) {
-					return criteria;
+				Annotation[] annotations = _repeatedAnnotationsOf(annotation);
+				return (annotations == null) ? criteria : analyze(position, resolvableType, annotations);
+			}
+			Criterion rootCriterion = _newCriterion(
+				null, position, root.type, _valuesOf(root.attrs, annotation), false, resolvableType);
+			for (MetaData.MetaAttrs node : root.path) {
+				if (node.owner == root.type) {
+					criteria.add(rootCriterion);
+					continue;
 				}
-				return analyze(position, resolvableType, annotations);
+				boolean sharesRootMessage = node.get("message").owner == root.type;
+				criteria.add(_newCriterion(
+					rootCriterion, position, node.owner, _valuesOf(node, annotation), sharesRootMessage, resolvableType));
 			}
-			Criterion rootCriterion = _newCriterion(null, position, root.attrs, annotation, resolvableType);
-			for (MetaData.MetaAttrs node : root.path)
-				criteria.add(_newCriterion(rootCriterion, position, node, annotation, resolvableType));
 			return criteria;
 		}
 
+		/**
+		 * 获取可重复注解的容器中的注解
+		 * 
+		 * @param annotation 注解
+		 * @return 容器中的注解, 若不是容器则返回 {@code null}
+		 */
+		private static Annotation[] _repeatedAnnotationsOf(Annotation annotation) {
+			Class<? extends Annotation> annoType = annotation.annotationType();
+			try {
+				Method attr = annoType.getDeclaredMethod("value");
+				Class<?> attrType = attr.getReturnType();
+				if (!attrType.isArray()) return null;
+				Class<?> attrComponentType = attrType.getComponentType();
+				if (!attrComponentType.isAnnotation()) return null;
+				Repeatable repeatable = attrComponentType.getDeclaredAnnotation(Repeatable.class);
+				if (repeatable == null || repeatable.value() != annoType) return null;
+				attr.setAccessible(true);
+				return (Annotation[]) attr.invoke(annotation);
+			} catch (Exception e) {
+				return null;
+			}
+		}
+
+		/**
+		 * 将约束注解解析为约束定义, 结果可通过 {@link #analyze(String, ResolvableType, List)} 分析
+		 * 
+		 * @param annotations 注解, 非约束注解会被忽略
+		 * @return 约束链
+		 */
+		public static List<Definition[]> definitionsOf(Annotation[] annotations) {
+			List<Definition[]> chains = new LinkedList<>();
+			for (Annotation annotation : annotations) {
+				MetaData root = MetaData.of(annotation.annotationType());
+				if (root == null) {
+					Annotation[] repeated = _repeatedAnnotationsOf(annotation);
+					if (repeated != null) chains.addAll(definitionsOf(repeated));
+					continue;
+				}
+				Definition rootDefinition = _newDefinition(root.type, false, root.attrs, annotation);
+				Definition[] chain = new Definition[root.path.size() + 1];
+				chain[0] = rootDefinition;
+				int i = 1;
+				for (MetaData.MetaAttrs node : root.path)
+					chain[i++] = (node.owner == root.type) ? rootDefinition
+						: _newDefinition(node.owner, node.get("message").owner == root.type, node, annotation);
+				chains.add(chain);
+			}
+			return chains;
+		}
+
+		private static Definition _newDefinition(
+				Class<?> type, boolean sharesRootMessage, MetaData.MetaAttrs metaAttrs, Annotation annotation) {
+			Definition definition = new Definition((Class<? extends Annotation>) type, sharesRootMessage);
+			definition.data = _valuesOf(metaAttrs, annotation);
+			return definition;
+		}
+
+		private static HashMap<String, Object> _valuesOf(MetaData.MetaAttrs metaAttrs, Annotation annotation) {
+			HashMap<String, Object> data = new HashMap<>(metaAttrs.size(), 1f);
+			metaAttrs.forEach((name, attr) -> data.put(name, attr.getValue(annotation)));
+			return data;
+		}
+
+		/**
+		 * 分析已确定属性值的约束定义
+		 * 
+		 * <p> 与 {@link #analyze(String, ResolvableType, Annotation[])} 的结果一致, 但不会初始化 {@link MetaData}
+		 * 
+		 * @param position 位置
+		 * @param resolvableType 值的类型
+		 * @param chains 约束链, 每条链的首个元素为根约束, 其后为完整的关联路径. 路径中的根约束需为同一实例.
+		 * @return 已排序的约束
+		 */
+		public static LinkedList<Criterion> analyze(
+				String position, ResolvableType resolvableType, List<Definition[]> chains) {
+			LinkedList<Criterion> criteria = new LinkedList<>();
+			for (Definition[] chain : chains) {
+				Definition root = chain[0];
+				try {
+					Criterion rootCriterion = _newCriterion(
+						null, position, root.type, new HashMap<>(root.data), false, resolvableType);
+					for (int i = 1; i < chain.length; i++)
+						criteria.add((chain[i] == root) ? rootCriterion : _newCriterion(
+							rootCriterion, position, chain[i].type, new HashMap<>(chain[i].data),
+							chain[i].sharesRootMessage, resolvableType));
+				} catch (InitializationException e) {
+					throw new InitializationException(e, "初始化位于 %s 上的约束 @%s 时出现错误",
+						position, root.type.getSimpleName());
+				}
+			}
+			criteria.sort(Comparator.comparingInt(Criterion::getOrder));
+			return _fuse(criteria);
+		}
+
 		private static Criterion _newCriterion(
 				Criterion rootCriterion,
 				String position,
-				MetaData.MetaAttrs metaAttrs, Annotation annotation,
+				Class<?> owner, HashMap<String, Object> data, boolean sharesRootMessage,
 				ResolvableType resolvableType) {
 			boolean isRoot = rootCriterion == null;
-			if (!isRoot && rootCriterion.type == metaAttrs.owner)
-				return rootCriterion;
 			Criterion criterion = new Criterion();
-			criterion.type = metaAttrs.owner;
-			criterion.attrs = Attributes._of(isRoot ? null : rootCriterion.attrs, metaAttrs, annotation);
+			criterion.type = owner;
+			criterion.root = isRoot ? criterion : rootCriterion;
+			criterion.attrs = Attributes._of(isRoot ? null : rootCriterion.attrs, owner, data);
 			criterion.position = position;
-			if (!criterion.attrs.depth.isEmpty())
+			if (!criterion.attrs.depth.isEmpty()) {
 				criterion.position += '.' + criterion.attrs.depth;
+				criterion.traversal = new DepthTraversal(criterion.position, criterion.attrs.depth);
+			}
 			String message = criterion.attrs._minimizeAndReturnMessage();
-			criterion.template = (!isRoot && metaAttrs.get("message").owner == rootCriterion.type)
+			criterion.template = (!isRoot && sharesRootMessage)
 				? rootCriterion.template
 				: CriterionViolation.Template.of(criterion.position, criterion.type, message, criterion.attrs.data);
 			criterion.attrs.data.remove("message");
-			MetaData md = MetaData.of(metaAttrs.owner);
-			if (md.isMarker()) return criterion;
+			ValueHandlers<?> vhs = MetaData.VALUE_HANDLERS.get(owner);
+			if (vhs instanceof ValueHandlers4Marker) return criterion;
 			try {
-				ValueHandlers<?> vhs = md.config.valueHandlers().newInstance();
-				criterion.converter = vhs.getConverter(_getDepthType(criterion.attrs.depth, resolvableType));
+				ResolvableType depthType = _getDepthType(criterion.attrs.depth, resolvableType);
+				criterion.attrs.valueType = depthType;
+				criterion.nullable = vhs instanceof VNotNullValueHandleres;
+				criterion.converter = vhs.getConverter(depthType);
 				criterion.predicate = vhs.getPredicate(criterion.attrs);
+				if (vhs instanceof PrimitiveValueHandlers.OfLong) {
+					PrimitiveValueHandlers.OfLong longVhs = (PrimitiveValueHandlers.OfLong) vhs;
+					criterion.longConverter = longVhs.getLongConverter(depthType);
+					criterion.longPredicate = longVhs.getLongPredicate(criterion.attrs);
+				}
 				criterion.stringifier = vhs.getStringifier(criterion.attrs);
 				return criterion;
 			} catch (Exception e) {
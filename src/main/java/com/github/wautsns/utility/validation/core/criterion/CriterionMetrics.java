@@ -0,0 +1,92 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.criterion;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 约束的指标收集器
+ * 
+ * <p> 仅当系统属性 {@value #PROPERTY} 为 {@code true} 时启用, 启用后每次 {@link Criterion#test(Object)}
+ * 都会被计时并报告给收集器. 收集器通过 {@link ServiceLoader} 发现, 不存在时使用 {@link CriterionStats}.
+ * 
+ * <p> 是否启用在类初始化时确定且不可更改, 未启用时计时分支会被 JIT 当作死代码消除.
+ * 被合并的长整数区间约束(如 {@code @VPositive} 展开后的 {@code @VMin} 与 {@code @VMax})按部分分别记录.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public interface CriterionMetrics {
+
+	/** 启用指标收集的系统属性 */
+	String PROPERTY = "wautsns.validation.metrics";
+
+	/**
+	 * 记录一次约束的执行, 可能被并发调用
+	 * 
+	 * @param criterion 约束
+	 * @param nanos 执行耗时(纳秒), 包括生成违规信息的耗时
+	 * @param violated 是否违规
+	 */
+	void record(Criterion criterion, long nanos, boolean violated);
+
+	/**
+	 * 是否启用了指标收集
+	 * 
+	 * @return 若启用则返回 {@code true}
+	 */
+	static boolean isEnabled() {
+		return InstalledMetrics.ENABLED;
+	}
+
+	/**
+	 * 获取正在使用的收集器
+	 * 
+	 * @return 收集器, 未启用时为 {@code null}
+	 */
+	static CriterionMetrics get() {
+		return InstalledMetrics.INSTANCE;
+	}
+
+	/** 已安装的收集器, 在首次使用时加载 */
+	@NoArgsConstructor(access = AccessLevel.PRIVATE)
+	final class InstalledMetrics {
+
+		static final CriterionMetrics INSTANCE = _load();
+		static final boolean ENABLED = INSTANCE != null;
+
+		private static CriterionMetrics _load() {
+			if (!Boolean.getBoolean(CriterionMetrics.PROPERTY)) return null;
+			Iterator<CriterionMetrics> iterator = ServiceLoader.load(CriterionMetrics.class).iterator();
+			while (true) {
+				try {
+					if (!iterator.hasNext()) break;
+					return iterator.next();
+				} catch (ServiceConfigurationError | LinkageError e) {
+					// 忽略无法加载的收集器
+				}
+			}
+			return new CriterionStats();
+		}
+
+	}
+
+}
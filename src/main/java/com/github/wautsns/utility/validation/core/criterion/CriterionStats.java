@@ -0,0 +1,184 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.criterion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 默认的指标收集器, 按约束类型与位置统计执行次数, 违规次数与耗时分布
+ * 
+ * <p> 通过 {@link CriterionMetrics#get()} 获取, 并调用 {@link #getStats()} 读取统计结果
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class CriterionStats implements CriterionMetrics {
+
+	/** 同一类型与位置的约束可能存在多个实例(如重复分析), 共享同一统计 */
+	private final ConcurrentHashMap<List<Object>, Stat> statsByKey = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Criterion, Stat> statsByCriterion = new ConcurrentHashMap<>();
+
+	@Override
+	public void record(Criterion criterion, long nanos, boolean violated) {
+		Stat stat = statsByCriterion.get(criterion);
+		if (stat == null)
+			stat = statsByCriterion.computeIfAbsent(criterion, c -> statsByKey.computeIfAbsent(
+				Arrays.asList(c.getType(), c.getPosition()), k -> new Stat(c.getType(), c.getPosition())));
+		stat.evaluations.increment();
+		if (violated) stat.violations.increment();
+		stat.latency.record(nanos);
+	}
+
+	/**
+	 * 获取所有统计结果, 统计仍在进行中, 各项数值不保证处于同一时刻
+	 * 
+	 * @return 统计结果
+	 */
+	public List<Stat> getStats() {
+		return new ArrayList<>(statsByKey.values());
+	}
+
+	/** 清空所有统计结果 */
+	public void reset() {
+		statsByCriterion.clear();
+		statsByKey.clear();
+	}
+
+	public static class Stat {
+
+		private final Class<?> type;
+		private final String position;
+		private final LongAdder evaluations = new LongAdder();
+		private final LongAdder violations = new LongAdder();
+		private final LatencyHistogram latency = new LatencyHistogram();
+
+		private Stat(Class<?> type, String position) {
+			this.type = type;
+			this.position = position;
+		}
+
+		public Class<?> getType() {
+			return type;
+		}
+
+		public String getPosition() {
+			return position;
+		}
+
+		public long getEvaluations() {
+			return evaluations.sum();
+		}
+
+		public long getViolations() {
+			return violations.sum();
+		}
+
+		public LatencyHistogram getLatency() {
+			return latency;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("{type: %s, position: %s, evaluations: %d, violations: %d, latency: %s}",
+				type.getSimpleName(), position, getEvaluations(), getViolations(), latency);
+		}
+	}
+
+	/**
+	 * 耗时分布, 采用 HDR 风格的对数线性分桶
+	 * 
+	 * <p> 小于 {@value #SUB_BUCKETS} 纳秒的值精确记录, 更大的值按 2 的幂分段, 每段再等分为
+	 * {@value #HALF_SUB_BUCKETS} 个桶, 相对误差不超过 1/{@value #HALF_SUB_BUCKETS}. 超过
+	 * {@code 2^MAX_EXPONENT} 纳秒的值计入最后一个桶.
+	 */
+	public static class LatencyHistogram {
+
+		private static final int SUB_BUCKET_BITS = 5;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+		private static final int HALF_SUB_BUCKETS = SUB_BUCKETS >> 1;
+		/** 约 18 分钟 */
+		private static final int MAX_EXPONENT = 40;
+		private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS;
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+		void record(long nanos) {
+			counts.incrementAndGet(_indexOf(nanos));
+		}
+
+		public long getCount() {
+			long count = 0;
+			for (int i = 0; i < BUCKETS; i++)
+				count += counts.get(i);
+			return count;
+		}
+
+		/**
+		 * 获取指定百分位的耗时
+		 * 
+		 * @param percentile 百分位, 取值范围为 [0, 100]
+		 * @return 所在桶的上界(纳秒), 无记录时返回 {@code 0}
+		 */
+		public long getValueAtPercentile(double percentile) {
+			long[] snapshot = new long[BUCKETS];
+			long total = 0;
+			for (int i = 0; i < BUCKETS; i++)
+				total += (snapshot[i] = counts.get(i));
+			if (total == 0) return 0;
+			long target = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++)
+				if ((seen += snapshot[i]) >= target)
+					return _upperBoundOf(i);
+			return _upperBoundOf(BUCKETS - 1);
+		}
+
+		public long getMax() {
+			for (int i = BUCKETS - 1; i >= 0; i--)
+				if (counts.get(i) != 0)
+					return _upperBoundOf(i);
+			return 0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("{count: %d, p50: %dns, p99: %dns, p999: %dns, max: %dns}",
+				getCount(), getValueAtPercentile(50), getValueAtPercentile(99),
+				getValueAtPercentile(99.9), getMax());
+		}
+
+		private static int _indexOf(long nanos) {
+			if (nanos < SUB_BUCKETS) return (nanos < 0) ? 0 : (int) nanos;
+			int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+			if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+			int shift = exponent - SUB_BUCKET_BITS + 1;
+			return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (nanos >>> shift) - HALF_SUB_BUCKETS;
+		}
+
+		private static long _upperBoundOf(int index) {
+			if (index < SUB_BUCKETS) return index;
+			int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+			long mantissa = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+			return ((mantissa + 1) << shift) - 1;
+		}
+	}
+
+}
@@ -15,51 +15,142 @@
  */
 package com.github.wautsns.utility.validation.core.criterion;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Map.Entry;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.springframework.context.i18n.LocaleContextHolder;
+
 import com.github.wautsns.utility.validation.core.criterion.handlers.Stringifier;
 import com.github.wautsns.utility.validation.core.validation.VEnv;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 /**
+ * 约束违规信息
+ * 
+ * <p> message 在首次调用 {@link #getMessage()} 时才会被渲染. message 模板与 {@code {$p}} 在创建时按当前 locale 解析,
+ * 仅值的字符串化被延迟, 因此渲染结果与读取 message 的线程无关
  *
  * @author wautsns
  * @version 0.1.0 Mar 12, 2019
  */
-@Getter
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class CriterionViolation {
 
-	private Class<?> cause;
-	private String position;
+	@Getter
+	private final Class<?> cause;
+	@Getter
+	private final String position;
+	/** 未经字符串化的值 */
+	@Getter
+	private final Object value;
+	/** criterion 属性 */
+	@Getter
+	private final Map<String, Object> data;
+
+	/** 已国际化的约束位置, 用于替换 message 中的 {@code {$p}} */
+	private final String i18nPosition;
+	private final MessageSegments template;
+	private final Stringifier<Object> stringifier;
 	private String message;
 
+	private CriterionViolation(Template template, Object value, Stringifier<Object> stringifier) {
+		this.cause = template.cause;
+		this.position = template.position;
+		this.value = value;
+		this.data = template.data;
+		this.template = template.getMessageTemplate();
+		this.i18nPosition = this.template.hasPosition() ? VEnv.tryGetI18nMessage(template.position) : null;
+		this.stringifier = stringifier;
+	}
+
+	private CriterionViolation(CriterionViolation violation, String position) {
+		this.cause = violation.cause;
+		this.position = position;
+		this.value = violation.value;
+		this.data = violation.data;
+		this.i18nPosition = violation.i18nPosition;
+		this.template = violation.template;
+		this.stringifier = violation.stringifier;
+		this.message = violation.message;
+	}
+
+	/**
+	 * 获取位于指定位置的违规信息, 如容器中的元素
+	 * 
+	 * <p> message 中的 {@code {$p}} 仍使用约束的位置
+	 * 
+	 * @param position 位置
+	 * @return 违规信息
+	 */
+	public CriterionViolation withPosition(String position) {
+		return new CriterionViolation(this, position);
+	}
+
+	public String getMessage() {
+		String message = this.message;
+		if (message == null)
+			this.message = message = template.render(i18nPosition, _stringifyValue());
+		return message;
+	}
+
+	/**
+	 * 将 message 渲染至指定的 {@code Appendable}
+	 * 
+	 * @param appendable 渲染目标
+	 * @throws IOException 若 {@code appendable} 写入失败
+	 */
+	public void renderMessageTo(Appendable appendable) throws IOException {
+		if (message != null)
+			appendable.append(message);
+		else
+			template.renderTo(appendable, i18nPosition, _stringifyValue());
+	}
+
+	private String _stringifyValue() {
+		if (!template.hasValue()) return null;
+		return (stringifier == null) ? Stringifier.simple(value) : stringifier.stringify(value);
+	}
+
 	@Override
 	public String toString() {
-		return String.format("{cause: %s, position: %s, message: %s}", cause.getSimpleName(), position, message);
+		return String.format("{cause: %s, position: %s, message: %s}", cause.getSimpleName(), position, getMessage());
 	}
 
-	@AllArgsConstructor(access = AccessLevel.PROTECTED)
 	public static abstract class Template {
 
-		private String position;
+		protected String position;
 		private Class<?> cause;
+		/** criterion 属性(只读), 需确保已移除 message */
+		private Map<String, Object> data;
 
-		protected abstract String getMessageTemplate();
+		protected Template(String position, Class<?> cause, HashMap<String, Object> data) {
+			this.position = position;
+			this.cause = cause;
+			this.data = Collections.unmodifiableMap(data);
+		}
 
-		public CriterionViolation generate(String value) {
-			return new CriterionViolation(
-				cause,
-				position,
-				getMessageTemplate()
-					.replaceAll("\\{\\$p}", VEnv.tryGetI18nMessage(position))
-					.replaceAll("\\{\\$v}", value));
+		protected Map<String, Object> getData() {
+			return data;
+		}
+
+		protected abstract MessageSegments getMessageTemplate();
+
+		/**
+		 * 生成违规信息
+		 * 
+		 * @param value 未经字符串化的值
+		 * @param stringifier 值字符串化工具, 为 {@code null} 时使用 {@link Stringifier#simple(Object)}
+		 * @return 违规信息
+		 */
+		public CriterionViolation generate(Object value, Stringifier<Object> stringifier) {
+			return new CriterionViolation(this, value, stringifier);
 		}
 
 		public static Template of(String position, Class<?> cause, String message, HashMap<String, Object> data) {
@@ -69,45 +160,63 @@ public class CriterionViolation {
 				: new I18nTemplate(position, cause, message, data);
 		}
 
-		protected static String _fillData(String message, HashMap<String, Object> data) {
-			// 需确保 data 已移除 message
-			for (Entry<String, Object> entry : data.entrySet()) {
-				String value = Stringifier.simple(entry.getValue());
-				message = message.replaceAll("\\{\\#" + entry.getKey() + '}', value);
-			}
-			return message;
-		}
-
 		public static class SimpleTemplate extends Template {
 
-			private String message;
+			private MessageSegments message;
 
 			public SimpleTemplate(String position, Class<?> cause, String message, HashMap<String, Object> data) {
-				super(position, cause);
-				this.message = _fillData(message, data);
+				super(position, cause, data);
+				// 未配置消息资源时位置无需国际化, 直接替换 {$p}
+				this.message = MessageSegments.parse(message, data, (VEnv.MESSAGE_SOURCE == null) ? position : null);
 			}
 
 			@Override
-			protected String getMessageTemplate() {
+			protected MessageSegments getMessageTemplate() {
 				return message;
 			}
 		}
 
 		public static class I18nTemplate extends Template {
 
+			/** 每个模板最多缓存的 locale 数量, 超出时清空 */
+			private static final int MAX_CACHED_LOCALES = 16;
+			private static final AtomicInteger GENERATION = new AtomicInteger();
+
 			private String text;
-			private HashMap<String, Object> data;
+			private volatile LocaleCache cache = new LocaleCache(GENERATION.get());
 
 			public I18nTemplate(String position, Class<?> cause, String message, HashMap<String, Object> data) {
-				super(position, cause);
+				super(position, cause, data);
 				text = message;
-				this.data = data;
+			}
+
+			/**
+			 * 使所有已缓存的 message 模板失效
+			 * 
+			 * <p> 更换 {@link VEnv#MESSAGE_SOURCE} 或其内容后需调用该方法
+			 */
+			public static void invalidateCache() {
+				GENERATION.incrementAndGet();
 			}
 
 			private static final Pattern PATTERN = Pattern.compile("\\{(?![$#])([^{}]*)}");
 
 			@Override
-			protected String getMessageTemplate() {
+			protected MessageSegments getMessageTemplate() {
+				LocaleCache cache = this.cache;
+				int generation = GENERATION.get();
+				if (cache.generation != generation)
+					this.cache = cache = new LocaleCache(generation);
+				Locale locale = LocaleContextHolder.getLocale();
+				MessageSegments segments = cache.get(locale);
+				if (segments != null) return segments;
+				segments = _resolve();
+				if (cache.size() >= MAX_CACHED_LOCALES) cache.clear();
+				cache.put(locale, segments);
+				return segments;
+			}
+
+			private MessageSegments _resolve() {
 				String temp, message = VEnv.tryGetI18nMessage(text);
 				do {
 					temp = message;
@@ -119,7 +228,19 @@ public class CriterionViolation {
 							message = temp.replace("{" + target + '}', replacement);
 					}
 				} while (!message.equals(temp));
-				return _fillData(message, data);
+				return MessageSegments.parse(message, getData(), VEnv.tryGetI18nMessage(position));
+			}
+
+			private static class LocaleCache extends ConcurrentHashMap<Locale, MessageSegments> {
+
+				private static final long serialVersionUID = 1L;
+
+				private final int generation;
+
+				public LocaleCache(int generation) {
+					super(4);
+					this.generation = generation;
+				}
 			}
 		}
 	}
@@ -0,0 +1,354 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.criterion;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongPredicate;
+import java.util.function.ToLongFunction;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import com.github.wautsns.utility.validation.core.criterion.handlers.ValueHandlers4LongInteger;
+import com.github.wautsns.utility.validation.core.validation.VEnv;
+
+/**
+ * depth 表达式的遍历器
+ * 
+ * <p> 按 depth 表达式逐层遍历容器, 并对最内层的每个元素执行约束:
+ * <ul>
+ * <li>{@code e}: {@link Collection} 的元素, {@link RandomAccess} 的 {@link List} 按下标访问</li>
+ * <li>{@code k}: {@link Map} 的键</li>
+ * <li>{@code v}: {@link Map} 的值</li>
+ * <li>{@code c}: 数组的元素, 基本类型数组使用专门的循环, 长整数约束不会装箱</li>
+ * </ul>
+ * 
+ * <p> 遍历过程中不会为元素分配对象, 元素的位置(如 {@code items[3]}, {@code amounts[key]},
+ * {@code amounts<key>})仅在出现违规时生成. 为 {@code null} 的容器会被跳过.
+ * 
+ * <p> 若开启了 {@link VEnv#PARALLEL_TRAVERSAL}, 最外层为 {@code e} 或 {@code c} 且元素数量达到
+ * {@link VEnv#PARALLEL_THRESHOLD} 的容器将通过 fork/join 并行遍历, 结果与顺序遍历一致.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public final class DepthTraversal {
+
+	private final String depth;
+	/** 容器的位置, 即约束位置去掉 depth 后缀 */
+	private final String basePosition;
+
+	DepthTraversal(String position, String depth) {
+		this.depth = depth;
+		this.basePosition = position.substring(0, position.length() - depth.length() - 1);
+	}
+
+	public String getDepth() {
+		return depth;
+	}
+
+	/**
+	 * 遍历容器, 并对每个元素执行约束
+	 * 
+	 * @param criterion 约束
+	 * @param target 容器
+	 * @param violations 违规信息
+	 * @param limit 上限, {@code violations} 的大小达到上限后停止
+	 * @return 若未达到上限则返回 {@code true}
+	 */
+	public boolean traverse(Criterion criterion, Object target, List<CriterionViolation> violations, int limit) {
+		if (violations.size() >= limit) return false;
+		if (VEnv.PARALLEL_TRAVERSAL && _isIndexed(target) && _length(target) >= VEnv.PARALLEL_THRESHOLD)
+			return _traverseInParallel(criterion, target, violations, limit);
+		return _visit(criterion, target, 0, _newPath(), violations, limit);
+	}
+
+	/** 仅多层遍历需要记录外层的下标或键 */
+	private Path _newPath() {
+		return (depth.length() > 1) ? new Path(depth.length() - 1) : null;
+	}
+
+	private boolean _isIndexed(Object container) {
+		return (depth.charAt(0) == 'e')
+			? container instanceof List && container instanceof RandomAccess
+			: depth.charAt(0) == 'c' && container != null;
+	}
+
+	private static int _length(Object indexedContainer) {
+		return (indexedContainer instanceof List)
+			? ((List<?>) indexedContainer).size()
+			: Array.getLength(indexedContainer);
+	}
+
+	/**
+	 * 将最外层的容器拆分为多个子任务并行遍历, 并按下标顺序合并违规信息
+	 * 
+	 * <p> 每个子任务至多收集剩余上限条违规信息, 合并后截断, 因此结果与顺序遍历完全一致.
+	 * 子任务在调用线程的 locale 下生成违规信息, 使 message 与顺序遍历相同
+	 */
+	private boolean _traverseInParallel(
+			Criterion criterion, Object container, List<CriterionViolation> violations, int limit) {
+		int remaining = limit - violations.size();
+		int length = _length(container);
+		int parallelism = VEnv.FORK_JOIN_POOL.getParallelism();
+		int chunk = Math.max(length / (parallelism * 4), 1);
+		List<CriterionViolation> result = VEnv.FORK_JOIN_POOL.invoke(
+			new Subtask(LocaleContextHolder.getLocaleContext(), criterion, container, 0, length, chunk, remaining));
+		violations.addAll(result);
+		return violations.size() < limit;
+	}
+
+	private class Subtask extends RecursiveTask<List<CriterionViolation>> {
+
+		private static final long serialVersionUID = 1L;
+
+		/** 调用线程的 locale */
+		private final LocaleContext localeContext;
+		private final Criterion criterion;
+		private final Object container;
+		private final int from;
+		private final int to;
+		private final int chunk;
+		private final int limit;
+
+		public Subtask(
+				LocaleContext localeContext, Criterion criterion, Object container,
+				int from, int to, int chunk, int limit) {
+			this.localeContext = localeContext;
+			this.criterion = criterion;
+			this.container = container;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+			this.limit = limit;
+		}
+
+		@Override
+		protected List<CriterionViolation> compute() {
+			if (to - from <= chunk) {
+				List<CriterionViolation> violations = new ArrayList<>();
+				LocaleContext previous = LocaleContextHolder.getLocaleContext();
+				LocaleContextHolder.setLocaleContext(localeContext);
+				try {
+					_visitIndexed(criterion, container, 0, from, to, _newPath(), violations, limit);
+				} finally {
+					LocaleContextHolder.setLocaleContext(previous);
+				}
+				return violations;
+			}
+			int middle = (from + to) >>> 1;
+			Subtask right = new Subtask(localeContext, criterion, container, middle, to, chunk, limit);
+			right.fork();
+			List<CriterionViolation> violations = new Subtask(localeContext, criterion, container, from, middle, chunk, limit)
+				.compute();
+			List<CriterionViolation> rightViolations = right.join();
+			if (violations.size() >= limit) return violations;
+			violations.addAll(rightViolations.size() <= limit - violations.size()
+				? rightViolations
+				: rightViolations.subList(0, limit - violations.size()));
+			return violations;
+		}
+	}
+
+	private boolean _visit(
+			Criterion criterion, Object container, int level, Path path,
+			List<CriterionViolation> violations, int limit) {
+		if (container == null) return true;
+		switch (depth.charAt(level)) {
+			case 'e':
+				if (container instanceof List && container instanceof RandomAccess) {
+					int size = ((List<?>) container).size();
+					return _visitIndexed(criterion, container, level, 0, size, path, violations, limit);
+				} else {
+					int i = 0;
+					for (Object element : (Collection<?>) container)
+						if (!_element(criterion, element, level, i++, null, path, violations, limit))
+							return false;
+				}
+				return true;
+			case 'k':
+			case 'v':
+				boolean isKey = depth.charAt(level) == 'k';
+				for (Map.Entry<?, ?> entry : ((Map<?, ?>) container).entrySet()) {
+					Object element = isKey ? entry.getKey() : entry.getValue();
+					if (!_element(criterion, element, level, -1, entry.getKey(), path, violations, limit))
+						return false;
+				}
+				return true;
+			default: // 'c'
+				int length = Array.getLength(container);
+				return _visitIndexed(criterion, container, level, 0, length, path, violations, limit);
+		}
+	}
+
+	/**
+	 * 遍历 {@link RandomAccess} 的 {@link List} 或数组中 [from, to) 的元素
+	 */
+	private boolean _visitIndexed(
+			Criterion criterion, Object container, int level, int from, int to, Path path,
+			List<CriterionViolation> violations, int limit) {
+		if (container instanceof List) {
+			List<?> list = (List<?>) container;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, list.get(i), level, i, null, path, violations, limit))
+					return false;
+			return true;
+		} else if (container instanceof Object[]) {
+			Object[] array = (Object[]) container;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, array[i], level, i, null, path, violations, limit))
+					return false;
+			return true;
+		}
+		// 基本类型数组只能位于最内层
+		return _visitPrimitiveArray(criterion, container, level, from, to, path, violations, limit);
+	}
+
+	private boolean _element(
+			Criterion criterion, Object element, int level, int index, Object key, Path path,
+			List<CriterionViolation> violations, int limit) {
+		if (level < depth.length() - 1) {
+			path.indices[level] = index;
+			path.keys[level] = key;
+			return _visit(criterion, element, level + 1, path, violations, limit);
+		}
+		CriterionViolation violation = criterion.test(element);
+		if (violation == null) return true;
+		return _add(violation, level, index, key, path, violations, limit);
+	}
+
+	private boolean _visitPrimitiveArray(
+			Criterion criterion, Object array, int level, int from, int to, Path path,
+			List<CriterionViolation> violations, int limit) {
+		LongPredicate longPredicate = criterion.getLongPredicate();
+		// 仅在转换器为单纯的数值转换时跳过转换器, 启用指标收集时需经过 Criterion.test(Object)
+		ToLongFunction<Object> longConverter = criterion.getLongConverter();
+		if (!CriterionMetrics.InstalledMetrics.ENABLED && longPredicate != null
+				&& (longConverter == ValueHandlers4LongInteger.OF_LONG
+					|| longConverter == ValueHandlers4LongInteger.OF_NUMBER)) {
+			if (array instanceof long[]) {
+				long[] values = (long[]) array;
+				for (int i = from; i < to; i++)
+					if (!longPredicate.test(values[i])
+							&& !_add(criterion.violate(values[i]), level, i, null, path, violations, limit))
+						return false;
+				return true;
+			} else if (array instanceof int[]) {
+				int[] values = (int[]) array;
+				for (int i = from; i < to; i++)
+					if (!longPredicate.test(values[i])
+							&& !_add(criterion.violate((long) values[i]), level, i, null, path, violations, limit))
+						return false;
+				return true;
+			} else if (array instanceof short[]) {
+				short[] values = (short[]) array;
+				for (int i = from; i < to; i++)
+					if (!longPredicate.test(values[i])
+							&& !_add(criterion.violate((long) values[i]), level, i, null, path, violations, limit))
+						return false;
+				return true;
+			} else if (array instanceof byte[]) {
+				byte[] values = (byte[]) array;
+				for (int i = from; i < to; i++)
+					if (!longPredicate.test(values[i])
+							&& !_add(criterion.violate((long) values[i]), level, i, null, path, violations, limit))
+						return false;
+				return true;
+			}
+		}
+		if (array instanceof long[]) {
+			long[] values = (long[]) array;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, values[i], level, i, null, path, violations, limit))
+					return false;
+		} else if (array instanceof int[]) {
+			int[] values = (int[]) array;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, values[i], level, i, null, path, violations, limit))
+					return false;
+		} else if (array instanceof short[]) {
+			short[] values = (short[]) array;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, values[i], level, i, null, path, violations, limit))
+					return false;
+		} else if (array instanceof byte[]) {
+			byte[] values = (byte[]) array;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, values[i], level, i, null, path, violations, limit))
+					return false;
+		} else if (array instanceof char[]) {
+			char[] values = (char[]) array;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, values[i], level, i, null, path, violations, limit))
+					return false;
+		} else if (array instanceof boolean[]) {
+			boolean[] values = (boolean[]) array;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, values[i], level, i, null, path, violations, limit))
+					return false;
+		} else if (array instanceof float[]) {
+			float[] values = (float[]) array;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, values[i], level, i, null, path, violations, limit))
+					return false;
+		} else {
+			double[] values = (double[]) array;
+			for (int i = from; i < to; i++)
+				if (!_element(criterion, values[i], level, i, null, path, violations, limit))
+					return false;
+		}
+		return true;
+	}
+
+	private boolean _add(
+			CriterionViolation violation, int level, int index, Object key, Path path,
+			List<CriterionViolation> violations, int limit) {
+		StringBuilder bder = new StringBuilder(basePosition);
+		for (int i = 0; i < level; i++)
+			_appendSegment(bder, depth.charAt(i), path.indices[i], path.keys[i]);
+		_appendSegment(bder, depth.charAt(level), index, key);
+		violations.add(violation.withPosition(bder.toString()));
+		return violations.size() < limit;
+	}
+
+	private static void _appendSegment(StringBuilder bder, char op, int index, Object key) {
+		if (op == 'k')
+			bder.append('<').append(key).append('>');
+		else if (op == 'v')
+			bder.append('[').append(key).append(']');
+		else
+			bder.append('[').append(index).append(']');
+	}
+
+	/** 外层的下标或键, 每次遍历仅分配一次 */
+	private static class Path {
+
+		private final int[] indices;
+		private final Object[] keys;
+
+		public Path(int size) {
+			indices = new int[size];
+			keys = new Object[size];
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.criterion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+
+import com.github.wautsns.utility.validation.core.criterion.handlers.BoundedStringifier;
+import com.github.wautsns.utility.validation.core.validation.VEnv;
+
+/**
+ * 预解析的 message 模板
+ * 
+ * <p> 解析时将 {@code {#name}} 替换为字符串化的属性值, 并将 {@code {$p}}, {@code {$v}} 记录为占位符,
+ * 生成 message 时仅需依次拼接
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public final class MessageSegments {
+
+	private static final Object POSITION = new Object();
+	private static final Object VALUE = new Object();
+
+	/** 字面量({@code String}), {@link #POSITION} 或 {@link #VALUE} */
+	private final Object[] segments;
+	private final int literalLength;
+	private final boolean hasPosition;
+	private final boolean hasValue;
+
+	private MessageSegments(Object[] segments) {
+		this.segments = segments;
+		int length = 0;
+		boolean hasPosition = false, hasValue = false;
+		for (Object segment : segments)
+			if (segment == POSITION)
+				hasPosition = true;
+			else if (segment == VALUE)
+				hasValue = true;
+			else
+				length += ((String) segment).length();
+		this.literalLength = length;
+		this.hasPosition = hasPosition;
+		this.hasValue = hasValue;
+	}
+
+	/**
+	 * 是否包含 {@code {$v}}, 若不包含则渲染时无需字符串化值
+	 * 
+	 * @return 若包含 {@code {$v}} 则返回 {@code true}
+	 */
+	public boolean hasValue() {
+		return hasValue;
+	}
+
+	/**
+	 * 是否包含 {@code {$p}}, 若不包含则渲染时无需国际化位置
+	 * 
+	 * @return 若包含 {@code {$p}} 则返回 {@code true}
+	 */
+	public boolean hasPosition() {
+		return hasPosition;
+	}
+
+	/**
+	 * 渲染 message
+	 * 
+	 * @param i18nPosition 已国际化的位置, 用于替换 {@code {$p}}
+	 * @param value 字符串化的值, 用于替换 {@code {$v}}
+	 * @return message
+	 */
+	public String render(String i18nPosition, String value) {
+		int capacity = literalLength;
+		for (Object segment : segments)
+			if (segment == POSITION)
+				capacity += i18nPosition.length();
+			else if (segment == VALUE)
+				capacity += value.length();
+		StringBuilder bder = new StringBuilder(capacity);
+		try {
+			_append(bder, i18nPosition, value);
+		} catch (IOException e) {
+			throw new RuntimeException("unreachable");
+		}
+		return bder.toString();
+	}
+
+	public void renderTo(Appendable appendable, String i18nPosition, String value) throws IOException {
+		_append(appendable, i18nPosition, value);
+	}
+
+	private void _append(Appendable appendable, String i18nPosition, String value) throws IOException {
+		for (Object segment : segments)
+			if (segment == POSITION)
+				appendable.append(i18nPosition);
+			else if (segment == VALUE)
+				appendable.append(value);
+			else
+				appendable.append((String) segment);
+	}
+
+	/**
+	 * 解析 message 模板
+	 * 
+	 * @param message message 模板
+	 * @param data criterion 属性, 需确保已移除 message
+	 * @return 预解析的 message 模板
+	 */
+	public static MessageSegments parse(String message, Map<String, Object> data) {
+		return parse(message, data, null);
+	}
+
+	/**
+	 * 解析 message 模板
+	 * 
+	 * @param message message 模板
+	 * @param data criterion 属性, 需确保已移除 message
+	 * @param i18nPosition 已国际化的位置, 若不为 {@code null} 则直接替换 {@code {$p}}
+	 * @return 预解析的 message 模板
+	 */
+	public static MessageSegments parse(String message, Map<String, Object> data, String i18nPosition) {
+		ArrayList<Object> segments = new ArrayList<>();
+		StringBuilder literal = new StringBuilder();
+		int i = 0, len = message.length();
+		while (i < len) {
+			int start = message.indexOf('{', i);
+			if (start < 0) {
+				literal.append(message, i, len);
+				break;
+			}
+			literal.append(message, i, start);
+			i = start + 1;
+			if (message.startsWith("$p}", i) || message.startsWith("$v}", i)) {
+				if (message.charAt(i + 1) == 'p' && i18nPosition != null) {
+					literal.append(i18nPosition);
+				} else {
+					_flush(segments, literal);
+					segments.add(message.charAt(i + 1) == 'p' ? POSITION : VALUE);
+				}
+				i += 3;
+				continue;
+			}
+			int end = message.indexOf('}', i);
+			if (message.startsWith("#", i) && end > 0 && data.containsKey(message.substring(i + 1, end))) {
+				BoundedStringifier.appendTo(literal, data.get(message.substring(i + 1, end)),
+					VEnv.STRINGIFIER_MAX_ELEMENTS, VEnv.STRINGIFIER_MAX_CHARS);
+				i = end + 1;
+			} else {
+				literal.append('{');
+			}
+		}
+		_flush(segments, literal);
+		return new MessageSegments(segments.toArray());
+	}
+
+	private static void _flush(ArrayList<Object> segments, StringBuilder literal) {
+		if (literal.length() == 0) return;
+		segments.add(literal.toString());
+		literal.setLength(0);
+	}
+
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.criterion.handlers;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 有界的字符串化工具
+ * 
+ * <p> 每个数组, {@link Collection} 与 {@link Map} 至多输出 {@code maxElements} 个元素, 整体至多输出
+ * {@code maxChars} 个字符, 超出部分以 {@value #ELLIPSIS} 表示. 基本类型数组直接追加元素, 不会装箱.
+ * 
+ * <p> 字符串化在当前线程复用的缓冲区中进行, 每次调用只分配结果字符串
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class BoundedStringifier implements Stringifier<Object> {
+
+	public static final String ELLIPSIS = "...";
+
+	/** 超过该容量的缓冲区使用后不再保留 */
+	private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+	private final int maxElements;
+	private final int maxChars;
+
+	/**
+	 * @param maxElements 每个容器至多输出的元素数量, 必须为正数
+	 * @param maxChars 至多输出的字符数量(不含省略号), 必须为正数
+	 */
+	public BoundedStringifier(int maxElements, int maxChars) {
+		if (maxElements <= 0 || maxChars <= 0)
+			throw new IllegalArgumentException("maxElements 与 maxChars 必须为正数");
+		this.maxElements = maxElements;
+		this.maxChars = maxChars;
+	}
+
+	@Override
+	public String stringify(Object value) {
+		return stringify(value, maxElements, maxChars);
+	}
+
+	/**
+	 * 字符串化值
+	 * 
+	 * @param value 值
+	 * @param maxElements 每个容器至多输出的元素数量
+	 * @param maxChars 至多输出的字符数量(不含省略号)
+	 * @return 字符串
+	 */
+	public static String stringify(Object value, int maxElements, int maxChars) {
+		StringBuilder bder = BUFFER.get();
+		// 缓冲区非空说明正处于外层调用中(如元素的 toString 再次字符串化), 不能复用
+		if (bder.length() != 0) bder = new StringBuilder();
+		try {
+			appendTo(bder, value, maxElements, maxChars);
+			return bder.toString();
+		} finally {
+			if (bder.capacity() > MAX_RETAINED_CAPACITY)
+				BUFFER.set(new StringBuilder(256));
+			else
+				bder.setLength(0);
+		}
+	}
+
+	/**
+	 * 将值字符串化后追加至 {@code bder}
+	 * 
+	 * @param bder 追加目标
+	 * @param value 值
+	 * @param maxElements 每个容器至多输出的元素数量
+	 * @param maxChars 至多追加的字符数量(不含省略号)
+	 */
+	public static void appendTo(StringBuilder bder, Object value, int maxElements, int maxChars) {
+		int start = bder.length();
+		int end = (int) Math.min(Integer.MAX_VALUE - 1, (long) start + maxChars);
+		if (_append(bder, value, Math.max(1, maxElements), end)) return;
+		int cut = end;
+		if (cut > start && Character.isHighSurrogate(bder.charAt(cut - 1))) cut--;
+		bder.setLength(cut);
+		bder.append(ELLIPSIS);
+	}
+
+	/** @return 若未超出 {@code end} 则返回 {@code true} */
+	private static boolean _append(StringBuilder bder, Object value, int maxElements, int end) {
+		// 先检查再追加, 使自引用的容器也能在字符数量达到上限时终止
+		if (bder.length() > end)
+			return false;
+		else if (value == null)
+			bder.append("null");
+		else if (value instanceof CharSequence)
+			_appendChars(bder.append('"'), (CharSequence) value, end).append('"');
+		else if (value instanceof Class)
+			bder.append(((Class<?>) value).getSimpleName()).append(".class");
+		else if (value instanceof Character)
+			bder.append('\'').append(((Character) value).charValue()).append('\'');
+		else if (value.getClass().isArray())
+			return _appendArray(bder, value, maxElements, end);
+		else if (value instanceof Collection)
+			return _appendElements(bder, ((Collection<?>) value).iterator(), maxElements, end);
+		else if (value instanceof Map)
+			return _appendEntries(bder, ((Map<?, ?>) value).entrySet().iterator(), maxElements, end);
+		else
+			_appendChars(bder, value.toString(), end);
+		return bder.length() <= end;
+	}
+
+	/** 只追加足以超出 {@code end} 的部分, 避免复制过长的字符串 */
+	private static StringBuilder _appendChars(StringBuilder bder, CharSequence chars, int end) {
+		int len = Math.min(chars.length(), Math.max(0, end - bder.length() + 1));
+		return bder.append(chars, 0, len);
+	}
+
+	private static boolean _appendElements(StringBuilder bder, Iterator<?> iterator, int maxElements, int end) {
+		bder.append('[');
+		for (int i = 0; iterator.hasNext(); i++) {
+			if (i > 0) bder.append(", ");
+			if (i == maxElements) {
+				bder.append(ELLIPSIS);
+				break;
+			}
+			if (!_append(bder, iterator.next(), maxElements, end)) return false;
+		}
+		bder.append(']');
+		return bder.length() <= end;
+	}
+
+	private static boolean _appendEntries(
+			StringBuilder bder, Iterator<? extends Map.Entry<?, ?>> iterator, int maxElements, int end) {
+		bder.append('{');
+		for (int i = 0; iterator.hasNext(); i++) {
+			if (i > 0) bder.append(", ");
+			if (i == maxElements) {
+				bder.append(ELLIPSIS);
+				break;
+			}
+			Map.Entry<?, ?> entry = iterator.next();
+			if (!_append(bder, entry.getKey(), maxElements, end)) return false;
+			bder.append(": ");
+			if (!_append(bder, entry.getValue(), maxElements, end)) return false;
+		}
+		bder.append('}');
+		return bder.length() <= end;
+	}
+
+	private static boolean _appendArray(StringBuilder bder, Object array, int maxElements, int end) {
+		bder.append('[');
+		int len;
+		if (array instanceof Object[]) {
+			Object[] values = (Object[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n; i++)
+				if (!_append((i > 0) ? bder.append(", ") : bder, values[i], maxElements, end))
+					return false;
+		} else if (array instanceof long[]) {
+			long[] values = (long[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n && bder.length() <= end; i++)
+				((i > 0) ? bder.append(", ") : bder).append(values[i]);
+		} else if (array instanceof int[]) {
+			int[] values = (int[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n && bder.length() <= end; i++)
+				((i > 0) ? bder.append(", ") : bder).append(values[i]);
+		} else if (array instanceof short[]) {
+			short[] values = (short[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n && bder.length() <= end; i++)
+				((i > 0) ? bder.append(", ") : bder).append(values[i]);
+		} else if (array instanceof byte[]) {
+			byte[] values = (byte[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n && bder.length() <= end; i++)
+				((i > 0) ? bder.append(", ") : bder).append(values[i]);
+		} else if (array instanceof char[]) {
+			char[] values = (char[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n && bder.length() <= end; i++)
+				((i > 0) ? bder.append(", ") : bder).append('\'').append(values[i]).append('\'');
+		} else if (array instanceof boolean[]) {
+			boolean[] values = (boolean[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n && bder.length() <= end; i++)
+				((i > 0) ? bder.append(", ") : bder).append(values[i]);
+		} else if (array instanceof float[]) {
+			float[] values = (float[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n && bder.length() <= end; i++)
+				((i > 0) ? bder.append(", ") : bder).append(values[i]);
+		} else {
+			double[] values = (double[]) array;
+			len = values.length;
+			for (int i = 0, n = Math.min(len, maxElements); i < n && bder.length() <= end; i++)
+				((i > 0) ? bder.append(", ") : bder).append(values[i]);
+		}
+		if (bder.length() > end) return false;
+		if (len > maxElements) bder.append(", ").append(ELLIPSIS);
+		bder.append(']');
+		return bder.length() <= end;
+	}
+
+}
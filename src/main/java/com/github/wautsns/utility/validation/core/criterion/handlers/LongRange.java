@@ -0,0 +1,66 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.criterion.handlers;
+
+import java.util.function.LongPredicate;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * 长整数区间断言器, 即 {@code min <= v <= max}
+ * 
+ * <p> 由同一注解展开的下界与上界会在分析时被合并
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@AllArgsConstructor
+public final class LongRange implements LongPredicate {
+
+	private final long min;
+	private final long max;
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	@Override
+	public boolean test(long value) {
+		return min <= value && value <= max;
+	}
+
+	public static LongRange atLeast(long min) {
+		return new LongRange(min, Long.MAX_VALUE);
+	}
+
+	public static LongRange atMost(long max) {
+		return new LongRange(Long.MIN_VALUE, max);
+	}
+
+	public LongRange intersect(LongRange other) {
+		return new LongRange(Math.max(min, other.min), Math.min(max, other.max));
+	}
+
+	@Override
+	public String toString() {
+		return "[" + min + ", " + max + "]";
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.criterion.handlers;
+
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.converter.Converter;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.exception.initialization.UnsupportedConversionException;
+
+/**
+ * 基本类型的值处理器
+ * 
+ * <p> {@link Criterion} 会优先使用基本类型的转换器与断言器, 以避免装箱
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public interface PrimitiveValueHandlers {
+
+	interface OfLong extends ValueHandlers<Long> {
+
+		/**
+		 * 获取长整数值转换器
+		 * 
+		 * <p> {@code ToLongFunction<Object>} 的参数能够保证不为 {@code null}
+		 * 
+		 * @param resolvableType 值的类型
+		 * @return 长整数值转换器
+		 * @throws UnsupportedConversionException 若 {@code type} 不被支持, 将抛出该异常
+		 */
+		ToLongFunction<Object> getLongConverter(ResolvableType resolvableType) throws UnsupportedConversionException;
+
+		/**
+		 * 获取长整数值断言器
+		 * 
+		 * @param attrs criterion 属性
+		 * @return 长整数值断言器
+		 */
+		LongPredicate getLongPredicate(Criterion.Attributes attrs);
+
+		@Override
+		default Converter<Object, Long> getConverter(ResolvableType resolvableType)
+				throws UnsupportedConversionException {
+			ToLongFunction<Object> converter = getLongConverter(resolvableType);
+			return converter::applyAsLong;
+		}
+
+		@Override
+		default Predicate<Long> getPredicate(Criterion.Attributes attrs) {
+			return getLongPredicate(attrs)::test;
+		}
+	}
+
+}
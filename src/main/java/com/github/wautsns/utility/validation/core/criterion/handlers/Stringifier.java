@@ -15,7 +15,7 @@
  */
 package com.github.wautsns.utility.validation.core.criterion.handlers;
 
-import java.lang.reflect.Array;
+import com.github.wautsns.utility.validation.core.validation.VEnv;
 
 /**
  *
@@ -26,25 +26,15 @@ public interface Stringifier<T> {
 
 	String stringify(T value);
 
+	/**
+	 * 默认的字符串化方式, 受 {@link VEnv#STRINGIFIER_MAX_ELEMENTS} 与 {@link VEnv#STRINGIFIER_MAX_CHARS} 限制
+	 * 
+	 * @param value 值
+	 * @return 字符串
+	 * @see BoundedStringifier
+	 */
 	static String simple(Object value) {
-		if (value == null) return "null";
-		if (value.getClass().isArray()) {
-			int len = Array.getLength(value);
-			if (len == 0)
-				return "[]";
-			StringBuilder bder = new StringBuilder();
-			bder.append('[');
-			for (int i = 0; i < len; i++)
-				bder.append(Stringifier.simple(Array.get(value, i))).append(", ");
-			bder.delete(bder.length() - 2, bder.length()).append(']');
-			return bder.toString();
-		} else if (value instanceof CharSequence)
-			return '"' + value.toString() + '"';
-		else if (value instanceof Class)
-			return ((Class<?>) value).getSimpleName() + ".class";
-		else if (value instanceof Character)
-			return '\'' + value.toString() + '\'';
-		return value.toString();
+		return BoundedStringifier.stringify(value, VEnv.STRINGIFIER_MAX_ELEMENTS, VEnv.STRINGIFIER_MAX_CHARS);
 	}
 
 }
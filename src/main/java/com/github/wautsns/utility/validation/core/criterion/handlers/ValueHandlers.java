@@ -25,6 +25,10 @@ import com.github.wautsns.utility.validation.core.criterion.Criterion;
 import com.github.wautsns.utility.validation.exception.initialization.UnsupportedConversionException;
 
 /**
+ * 值处理器
+ * 
+ * <p> 每个约束注解类型只会创建一个实例, 由该注解的所有约束共享, 并可能被多个线程同时调用.
+ * 实现需无状态且线程安全, 约束各自的信息只能从 {@link Criterion.Attributes} 中获取.
  *
  * @author wautsns
  * @version 0.1.0 Mar 12, 2019
@@ -15,10 +15,9 @@
  */
 package com.github.wautsns.utility.validation.core.criterion.handlers;
 
-import java.util.Arrays;
+import java.util.function.ToLongFunction;
 
 import org.springframework.core.ResolvableType;
-import org.springframework.core.convert.converter.Converter;
 
 import com.github.wautsns.utility.validation.exception.initialization.UnsupportedConversionException;
 
@@ -27,17 +26,19 @@ import com.github.wautsns.utility.validation.exception.initialization.Unsupporte
  * @author wautsns
  * @version 0.1.0 Mar 12, 2019
  */
-public interface ValueHandlers4LongInteger extends ValueHandlers<Long> {
+public interface ValueHandlers4LongInteger extends PrimitiveValueHandlers.OfLong {
 
-	Converter<Object, Long> OF_LONG = v -> (Long) v;
-	Converter<Object, Long> OF_NUMBER = v -> ((Number) v).longValue();
+	ToLongFunction<Object> OF_LONG = v -> (Long) v;
+	ToLongFunction<Object> OF_NUMBER = v -> ((Number) v).longValue();
 
 	@Override
-	default Converter<Object, Long> getConverter(ResolvableType resolvableType) throws UnsupportedConversionException {
+	default ToLongFunction<Object> getLongConverter(ResolvableType resolvableType)
+			throws UnsupportedConversionException {
 		Class<?> type = resolvableType.resolve();
-		if (Arrays.asList(Long.class, long.class, int.class, short.class, byte.class).contains(type))
+		if (type == Long.class || type == long.class)
 			return OF_LONG;
-		if (Number.class.isAssignableFrom(type))
+		// 基本类型的值在读取时已被装箱为对应的包装类型
+		if (type == int.class || type == short.class || type == byte.class || Number.class.isAssignableFrom(type))
 			return OF_NUMBER;
 		throw new UnsupportedConversionException(resolvableType, "长整数");
 	}
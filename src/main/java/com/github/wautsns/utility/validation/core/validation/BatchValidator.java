@@ -0,0 +1,141 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量校验器
+ * 
+ * <p> 按约束优先的顺序执行: 每个约束依次作用于整批 bean, 而非逐个 bean 执行所有约束.
+ * 每个 bean 的违规信息的顺序与逐个校验时一致.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class BatchValidator {
+
+	/**
+	 * 批量校验 bean
+	 * 
+	 * @param beans 待校验的 bean, 不能包含 {@code null}
+	 * @param mode 校验模式, 对每个 bean 分别生效
+	 * @param groups 组, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 * @return 与 {@code beans} 下标对应的违规信息, 无违规的 bean 对应空列表
+	 */
+	static List<List<CriterionViolation>> validateAll(List<?> beans, VMode mode, Class<?>... groups) {
+		// 约束优先的顺序会反复按下标访问 bean
+		if (!(beans instanceof RandomAccess)) beans = new ArrayList<>(beans);
+		int size = beans.size();
+		List<List<CriterionViolation>> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			result.add(ViolationCollector.EMPTY);
+		for (Map.Entry<Class<?>, int[]> partition : _partitionByType(beans).entrySet()) {
+			ValidationPlan plan = ValidationPlan.of(partition.getKey()).forGroups(groups);
+			ValidationListener[] listeners = ValidationListeners.get();
+			if (listeners.length == 0)
+				_validate(plan, beans, partition.getValue(), mode.getLimit(), result);
+			else
+				_validate(plan, beans, partition.getValue(), mode, result, listeners);
+		}
+		return result;
+	}
+
+	/** 按 bean 的实际类型划分下标, 通常只有一种类型 */
+	private static Map<Class<?>, int[]> _partitionByType(List<?> beans) {
+		Map<Class<?>, int[]> partitions = new LinkedHashMap<>(2);
+		int size = beans.size();
+		Class<?> first = (size == 0) ? null : _typeOf(beans.get(0), 0);
+		int i = 0;
+		while (i < size && _typeOf(beans.get(i), i) == first)
+			i++;
+		if (i == size) {
+			if (size > 0) partitions.put(first, _range(size));
+			return partitions;
+		}
+		Map<Class<?>, List<Integer>> indices = new LinkedHashMap<>();
+		for (i = 0; i < size; i++)
+			indices.computeIfAbsent(_typeOf(beans.get(i), i), t -> new ArrayList<>()).add(i);
+		indices.forEach((type, list) -> partitions.put(type, list.stream().mapToInt(Integer::intValue).toArray()));
+		return partitions;
+	}
+
+	private static Class<?> _typeOf(Object bean, int index) {
+		if (bean == null)
+			throw new IllegalArgumentException("beans[" + index + "] 为 null");
+		return bean.getClass();
+	}
+
+	private static int[] _range(int size) {
+		int[] indices = new int[size];
+		for (int i = 0; i < size; i++)
+			indices[i] = i;
+		return indices;
+	}
+
+	/** 存在监听器时逐个校验 bean, 使每个 bean 的事件保持完整的顺序 */
+	private static void _validate(
+			ValidationPlan plan, List<?> beans, int[] indices, VMode mode,
+			List<List<CriterionViolation>> result, ValidationListener[] listeners) {
+		for (int index : indices) {
+			List<CriterionViolation> violations = new LinkedList<>();
+			ValidationListeners.validate(plan, beans.get(index), violations, mode, listeners);
+			if (!violations.isEmpty()) result.set(index, violations);
+		}
+	}
+
+	private static void _validate(
+			ValidationPlan plan, List<?> beans, int[] indices, int limit,
+			List<List<CriterionViolation>> result) {
+		Object[] values = new Object[indices.length];
+		// 已达到上限的 bean 不再执行后续约束
+		boolean[] stopped = new boolean[indices.length];
+		List<CriterionViolation> buffer = new ArrayList<>();
+		for (ValidationPlan.Entry entry : plan.getEntries()) {
+			for (int j = 0; j < indices.length; j++)
+				values[j] = stopped[j] ? null : entry.read(beans.get(indices[j]));
+			for (Criterion criterion : entry.getCriteria()) {
+				for (int j = 0; j < indices.length; j++) {
+					if (stopped[j]) continue;
+					List<CriterionViolation> violations = result.get(indices[j]);
+					boolean hasNext = criterion.test(values[j], buffer, limit - violations.size());
+					if (!buffer.isEmpty()) {
+						if (violations.isEmpty()) {
+							violations = new LinkedList<>();
+							result.set(indices[j], violations);
+						}
+						violations.addAll(buffer);
+						buffer.clear();
+					}
+					if (!hasNext) stopped[j] = true;
+				}
+			}
+		}
+	}
+
+}
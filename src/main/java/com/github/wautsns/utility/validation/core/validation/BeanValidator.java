@@ -0,0 +1,112 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.List;
+
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+/**
+ * bean 校验器
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public interface BeanValidator {
+
+	/**
+	 * 校验 bean, 并将违规信息依次添加至 {@code violations}
+	 * 
+	 * @param bean 待校验的 bean, 不能为 {@code null}
+	 * @param violations 违规信息
+	 * @param mode 校验模式, {@code violations} 的大小达到上限后停止
+	 */
+	void validate(Object bean, List<CriterionViolation> violations, VMode mode);
+
+	default void validate(Object bean, List<CriterionViolation> violations) {
+		validate(bean, violations, VMode.COLLECT_ALL);
+	}
+
+	/**
+	 * 校验 bean
+	 * 
+	 * @param bean 待校验的 bean, 不能为 {@code null}
+	 * @param mode 校验模式
+	 * @return 违规信息, 无违规时返回共享的不可变空列表 {@link ViolationCollector#EMPTY}
+	 */
+	default List<CriterionViolation> validate(Object bean, VMode mode) {
+		ViolationCollector collector = ViolationCollector.acquire();
+		try {
+			validate(bean, collector, mode);
+			return collector.toResult();
+		} finally {
+			collector.release();
+		}
+	}
+
+	/**
+	 * 根据 {@link VEnv#ENGINE} 获取指定类型的校验器, 仅校验 {@link VGroups#DEFAULT_GROUPS} 中的约束
+	 * 
+	 * @param type bean 类型
+	 * @return 校验器
+	 * @see #of(Class, Class...)
+	 */
+	static BeanValidator of(Class<?> type) {
+		return of(type, VGroups.DEFAULT_GROUPS);
+	}
+
+	/**
+	 * 根据 {@link VEnv#ENGINE} 获取指定类型的校验器, 仅校验组与 {@code groups} 存在交集的约束
+	 * 
+	 * <p> 同一类型, 同一组的组合的校验器会被缓存. 未指定组或仅指定一个组时获取校验器不会分配对象;
+	 * 指定多个组时每次调用都会展开组, 调用方应持有返回的校验器而非重复获取
+	 * 
+	 * @param type bean 类型
+	 * @param groups 组, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 * @return 校验器
+	 */
+	static BeanValidator of(Class<?> type, Class<?>... groups) {
+		return BeanValidators.get(ValidationPlan.of(type).forGroups(groups), VEnv.ENGINE);
+	}
+
+	/**
+	 * 批量校验 bean, 收集所有违规信息
+	 * 
+	 * @param beans 待校验的 bean, 不能包含 {@code null}
+	 * @param groups 组, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 * @return 与 {@code beans} 下标对应的违规信息
+	 * @see #validateAll(List, VMode, Class...)
+	 */
+	static List<List<CriterionViolation>> validateAll(List<?> beans, Class<?>... groups) {
+		return validateAll(beans, VMode.COLLECT_ALL, groups);
+	}
+
+	/**
+	 * 批量校验 bean
+	 * 
+	 * <p> 每个约束依次作用于整批 bean, 因此同一约束的断言器可以连续执行. 每个 bean 的违规信息与逐个校验时一致.
+	 * 批量校验始终基于反射读取成员, 不受 {@link VEnv#ENGINE} 影响.
+	 * 
+	 * @param beans 待校验的 bean, 不能包含 {@code null}, 可以包含不同类型的 bean
+	 * @param mode 校验模式, 对每个 bean 分别生效
+	 * @param groups 组, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 * @return 与 {@code beans} 下标对应的违规信息, 无违规的 bean 对应共享的空列表
+	 */
+	static List<List<CriterionViolation>> validateAll(List<?> beans, VMode mode, Class<?>... groups) {
+		return BatchValidator.validateAll(beans, mode, groups);
+	}
+
+}
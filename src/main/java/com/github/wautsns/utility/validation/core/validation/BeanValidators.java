@@ -0,0 +1,77 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.List;
+
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+import com.github.wautsns.utility.validation.core.validation.compiler.BeanValidatorCompiler;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/**
+ * 按引擎缓存在校验计划上的 bean 校验器
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BeanValidators {
+
+	static BeanValidator get(ValidationPlan plan, VEnv.Engine engine) {
+		BeanValidator validator = (engine == VEnv.Engine.BYTECODE)
+			? plan.bytecodeValidator
+			: plan.reflectiveValidator;
+		if (validator != null) return validator;
+		synchronized (plan) {
+			if (engine != VEnv.Engine.BYTECODE) {
+				if (plan.reflectiveValidator == null)
+					plan.reflectiveValidator = new ReflectiveBeanValidator(plan);
+				return plan.reflectiveValidator;
+			}
+			if (plan.bytecodeValidator == null) {
+				try {
+					plan.bytecodeValidator = new Listenable(plan, BeanValidatorCompiler.compile(plan));
+				} catch (RuntimeException | LinkageError e) {
+					// 记录原因后退回至反射引擎
+					plan.bytecodeFailure = e;
+					plan.bytecodeValidator = get(plan, VEnv.Engine.REFLECTIVE);
+				}
+			}
+			return plan.bytecodeValidator;
+		}
+	}
+
+	/** 生成的校验器内联了约束, 存在监听器时需改为逐个执行约束 */
+	@AllArgsConstructor
+	private static class Listenable implements BeanValidator {
+
+		private final ValidationPlan plan;
+		private final BeanValidator compiled;
+
+		@Override
+		public void validate(Object bean, List<CriterionViolation> violations, VMode mode) {
+			ValidationListener[] listeners = ValidationListeners.get();
+			if (listeners.length == 0)
+				compiled.validate(bean, violations, mode);
+			else
+				ValidationListeners.validate(plan, bean, violations, mode, listeners);
+		}
+	}
+
+}
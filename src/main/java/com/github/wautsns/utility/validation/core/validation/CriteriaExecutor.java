@@ -0,0 +1,97 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.List;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 约束执行器
+ * 
+ * <p> 按顺序执行约束, 由 {@link Criterion.Analyzer} 分析得到的约束已按 {@link Criterion#getOrder()} 排序.
+ * depth 非空的约束会对容器中的每个元素执行.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CriteriaExecutor {
+
+	/**
+	 * 执行约束
+	 * 
+	 * @param criteria 约束
+	 * @param target 待校验的值
+	 * @param mode 校验模式
+	 * @return 违规信息, 无违规时返回共享的不可变空列表 {@link ViolationCollector#EMPTY}
+	 */
+	public static List<CriterionViolation> execute(List<Criterion> criteria, Object target, VMode mode) {
+		ViolationCollector collector = ViolationCollector.acquire();
+		try {
+			execute(criteria, target, collector, mode);
+			return collector.toResult();
+		} finally {
+			collector.release();
+		}
+	}
+
+	/**
+	 * 执行约束, 并将违规信息依次添加至 {@code violations}
+	 * 
+	 * @param criteria 约束
+	 * @param target 待校验的值
+	 * @param violations 违规信息
+	 * @param mode 校验模式, {@code violations} 的大小达到上限后停止
+	 * @return 若未达到上限则返回 {@code true}
+	 */
+	public static boolean execute(
+			List<Criterion> criteria, Object target, List<CriterionViolation> violations, VMode mode) {
+		int limit = mode.getLimit();
+		if (violations.size() >= limit) return false;
+		for (Criterion criterion : criteria)
+			if (!criterion.test(target, violations, limit))
+				return false;
+		return true;
+	}
+
+	/**
+	 * 以长整数执行约束, 并将违规信息依次添加至 {@code violations}
+	 * 
+	 * @param criteria 约束, 均需满足 {@link Criterion#isLongValued()}
+	 * @param target 待校验的值
+	 * @param violations 违规信息
+	 * @param mode 校验模式, {@code violations} 的大小达到上限后停止
+	 * @return 若未达到上限则返回 {@code true}
+	 */
+	public static boolean execute(
+			List<Criterion> criteria, long target, List<CriterionViolation> violations, VMode mode) {
+		int limit = mode.getLimit();
+		if (violations.size() >= limit) return false;
+		for (Criterion criterion : criteria) {
+			CriterionViolation violation = criterion.test(target);
+			if (violation == null) continue;
+			violations.add(violation);
+			if (violations.size() >= limit) return false;
+		}
+		return true;
+	}
+
+}
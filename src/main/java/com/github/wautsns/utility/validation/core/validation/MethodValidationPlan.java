@@ -0,0 +1,119 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.lang.reflect.Method;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+/**
+ * 方法的校验计划, 记录每个参数与返回值上的约束
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class MethodValidationPlan {
+
+	private Method method;
+	/** 与参数下标对应, 无约束的参数为 {@code null} */
+	private List<Criterion>[] parameters;
+	/** 无约束时为 {@code null} */
+	private List<Criterion> returnValue;
+
+	public Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * 是否存在参数上的约束
+	 * 
+	 * @return 若存在则返回 {@code true}
+	 */
+	public boolean hasParameterCriteria() {
+		return parameters != null;
+	}
+
+	/**
+	 * 是否存在返回值上的约束
+	 * 
+	 * @return 若存在则返回 {@code true}
+	 */
+	public boolean hasReturnValueCriteria() {
+		return returnValue != null;
+	}
+
+	/**
+	 * 校验参数, 并将违规信息依次添加至 {@code violations}
+	 * 
+	 * @param args 参数, 与方法的参数一一对应
+	 * @param violations 违规信息
+	 * @param mode 校验模式, {@code violations} 的大小达到上限后停止
+	 */
+	public void validateParameters(Object[] args, List<CriterionViolation> violations, VMode mode) {
+		if (parameters == null) return;
+		for (int i = 0; i < parameters.length; i++)
+			if (parameters[i] != null && !CriteriaExecutor.execute(parameters[i], args[i], violations, mode))
+				return;
+	}
+
+	/**
+	 * 校验返回值, 并将违规信息依次添加至 {@code violations}
+	 * 
+	 * @param value 返回值
+	 * @param violations 违规信息
+	 * @param mode 校验模式, {@code violations} 的大小达到上限后停止
+	 */
+	public void validateReturnValue(Object value, List<CriterionViolation> violations, VMode mode) {
+		if (returnValue != null)
+			CriteriaExecutor.execute(returnValue, value, violations, mode);
+	}
+
+	/**
+	 * 分析方法的校验计划, 不使用缓存
+	 * 
+	 * @param method 方法
+	 * @param groups 组, 仅保留组与之存在交集的约束, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 * @return 校验计划
+	 */
+	@SuppressWarnings("unchecked")
+	public static MethodValidationPlan analyze(Method method, Class<?>... groups) {
+		Class<?>[] flattened = VGroups.flatten(groups);
+		long mask = VGroups.maskOf(flattened);
+		MethodValidationPlan plan = new MethodValidationPlan();
+		plan.method = method;
+		List<Criterion>[] parameters = (List<Criterion>[]) new List<?>[method.getParameterCount()];
+		boolean hasParameterCriteria = false;
+		for (int i = 0; i < parameters.length; i++) {
+			parameters[i] = _filter(Criterion.Analyzer.analyzeAnnosOn(method, i), mask, flattened);
+			hasParameterCriteria |= parameters[i] != null;
+		}
+		plan.parameters = hasParameterCriteria ? parameters : null;
+		plan.returnValue = _filter(Criterion.Analyzer.analyzeReturnValueOf(method), mask, flattened);
+		return plan;
+	}
+
+	private static List<Criterion> _filter(LinkedList<Criterion> criteria, long mask, Class<?>[] groups) {
+		List<Criterion> filtered = criteria.stream()
+			.filter(c -> VGroups.intersects(c.getGroupMask(), c.getGroups(), mask, groups))
+			.collect(Collectors.toList());
+		return filtered.isEmpty() ? null : filtered;
+	}
+
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.List;
+
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * 基于反射的 bean 校验器
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@AllArgsConstructor
+public class ReflectiveBeanValidator implements BeanValidator {
+
+	private ValidationPlan plan;
+
+	@Override
+	public void validate(Object bean, List<CriterionViolation> violations, VMode mode) {
+		ValidationListener[] listeners = ValidationListeners.get();
+		if (listeners.length != 0) {
+			ValidationListeners.validate(plan, bean, violations, mode, listeners);
+			return;
+		}
+		for (ValidationPlan.Entry entry : plan.getEntries()) {
+			boolean hasNext = entry.isLongValued()
+				? CriteriaExecutor.execute(entry.getCriteria(), entry.readLong(bean), violations, mode)
+				: CriteriaExecutor.execute(entry.getCriteria(), entry.read(bean), violations, mode);
+			if (!hasNext) return;
+		}
+	}
+
+}
@@ -15,10 +15,15 @@
  */
 package com.github.wautsns.utility.validation.core.validation;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -37,6 +42,13 @@ public class VEnv {
 	 */
 	public static StandardEvaluationContext SpEL_CTX = new StandardEvaluationContext();
 
+	/**
+	 * {@code @VBySpEL} 等运行时表达式的编译模式, 默认为 {@link SpelCompilerMode#MIXED}
+	 * 
+	 * <p> 仅影响此后解析的表达式, 详见 {@link VSpEL}
+	 */
+	public static SpelCompilerMode SpEL_COMPILER_MODE = SpelCompilerMode.MIXED;
+
 	/**
 	 * 消息资源,默认为 {@code null}
 	 * 
@@ -44,6 +56,42 @@ public class VEnv {
 	 */
 	public static MessageSource MESSAGE_SOURCE;
 
+	/**
+	 * 设置消息资源, 并使已缓存的国际化 message 模板失效
+	 * 
+	 * @param messageSource 消息资源
+	 */
+	public static void setMessageSource(MessageSource messageSource) {
+		MESSAGE_SOURCE = messageSource;
+		CriterionViolation.Template.I18nTemplate.invalidateCache();
+	}
+
+	/**
+	 * 校验引擎, 默认为 {@link Engine#REFLECTIVE}
+	 * 
+	 * <p> 仅影响此后通过 {@link BeanValidator#of(Class)} 创建的校验器
+	 */
+	public static Engine ENGINE = Engine.REFLECTIVE;
+
+	/**
+	 * 是否并行遍历大容器, 默认为 {@code false}
+	 * 
+	 * <p> 开启后, 约束中的值断言器等需保证线程安全
+	 */
+	public static boolean PARALLEL_TRAVERSAL = false;
+
+	/** 并行遍历的阈值, 容器元素数量达到该值时才会并行遍历, 默认为 {@code 8192} */
+	public static int PARALLEL_THRESHOLD = 8192;
+
+	/** 并行遍历所使用的线程池, 默认为 {@link ForkJoinPool#commonPool()} */
+	public static ForkJoinPool FORK_JOIN_POOL = ForkJoinPool.commonPool();
+
+	/** 默认字符串化时, 每个数组, 集合或映射至多输出的元素数量, 默认为 {@code 64} */
+	public static int STRINGIFIER_MAX_ELEMENTS = 64;
+
+	/** 默认字符串化时至多输出的字符数量, 默认为 {@code 1024} */
+	public static int STRINGIFIER_MAX_CHARS = 1024;
+
 	/**
 	 * 尝试从 {@link #MESSAGE_SOURCE} 中获取指定文本所对应的 message
 	 * 
@@ -56,4 +104,17 @@ public class VEnv {
 			: MESSAGE_SOURCE.getMessage(key, null, key, LocaleContextHolder.getLocale());
 	}
 
+	public enum Engine {
+
+		/** 通过反射读取成员, 并逐个调用 {@code Criterion.test(Object)} */
+		REFLECTIVE,
+
+		/**
+		 * 为每个 bean 类型生成字节码校验器, 生成失败时退回 {@link #REFLECTIVE},
+		 * 原因记录在 {@link ValidationPlan#getBytecodeFailure()} 中
+		 */
+		BYTECODE
+
+	}
+
 }
@@ -15,6 +15,12 @@
  */
 package com.github.wautsns.utility.validation.core.validation;
 
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -31,4 +37,88 @@ public class VGroups {
 
 	public interface Default {}
 
+	/** 序号超过 62 的组共用该位, 需进一步比较组本身 */
+	public static final long OVERFLOW_BIT = 1L << 63;
+
+	private static final ConcurrentHashMap<Class<?>, Long> BITS = new ConcurrentHashMap<>();
+	private static final AtomicInteger INDEX = new AtomicInteger();
+
+	static {
+		bitOf(Default.class);
+	}
+
+	/**
+	 * 展开组, 即将继承了其他接口的组替换为其父接口, 直至所有组均不再继承其他接口
+	 * 
+	 * @param groups 组
+	 * @return 展开后的组, 若为空则返回 {@link #DEFAULT_GROUPS}
+	 */
+	public static Class<?>[] flatten(Class<?>... groups) {
+		LinkedList<Class<?>> flattened = Arrays.stream(groups)
+			.distinct().collect(Collectors.toCollection(LinkedList::new));
+		for (int i = 0; i < flattened.size();) {
+			Class<?> group = flattened.get(i);
+			Class<?>[] interfaces = group.getInterfaces();
+			if (interfaces.length == 0)
+				i++;
+			else {
+				flattened.remove(i);
+				for (Class<?> curr : interfaces)
+					if (!flattened.contains(curr))
+						flattened.add(curr);
+			}
+		}
+		return flattened.isEmpty()
+			? DEFAULT_GROUPS
+			: flattened.toArray(new Class<?>[flattened.size()]);
+	}
+
+	/**
+	 * 获取组所对应的位, 每个组在首次使用时被分配一个序号
+	 * 
+	 * @param group 已展开的组
+	 * @return 组所对应的位
+	 */
+	public static long bitOf(Class<?> group) {
+		Long bit = BITS.get(group);
+		if (bit != null) return bit;
+		return BITS.computeIfAbsent(group, g -> {
+			int index = INDEX.getAndIncrement();
+			return (index < 63) ? (1L << index) : OVERFLOW_BIT;
+		});
+	}
+
+	/**
+	 * 获取组的掩码
+	 * 
+	 * @param groups 已展开的组
+	 * @return 掩码
+	 */
+	public static long maskOf(Class<?>[] groups) {
+		long mask = 0L;
+		for (Class<?> group : groups)
+			mask |= bitOf(group);
+		return mask;
+	}
+
+	/**
+	 * 判断两组已展开的组是否存在交集
+	 * 
+	 * @param mask {@code groups} 的掩码
+	 * @param groups 已展开的组
+	 * @param otherMask {@code otherGroups} 的掩码
+	 * @param otherGroups 已展开的组
+	 * @return 若存在交集则返回 {@code true}
+	 */
+	public static boolean intersects(long mask, Class<?>[] groups, long otherMask, Class<?>[] otherGroups) {
+		long common = mask & otherMask;
+		if ((common & ~OVERFLOW_BIT) != 0) return true;
+		if (common == 0) return false;
+		for (Class<?> group : groups)
+			if (bitOf(group) == OVERFLOW_BIT)
+				for (Class<?> other : otherGroups)
+					if (group == other) return true;
+		return false;
+	}
+
 }
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * 校验模式, 决定最多收集多少条违规信息
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class VMode {
+
+	/** 遇到第一条违规信息时停止 */
+	public static final VMode FAIL_FAST = new VMode(1);
+	/** 收集所有违规信息 */
+	public static final VMode COLLECT_ALL = new VMode(Integer.MAX_VALUE);
+
+	private final int limit;
+
+	/**
+	 * 收集至多 {@code n} 条违规信息
+	 * 
+	 * @param n 上限, 需大于 0
+	 * @return 校验模式
+	 */
+	public static VMode collectUpTo(int n) {
+		if (n <= 0)
+			throw new IllegalArgumentException("n 需大于 0");
+		return (n == 1) ? FAIL_FAST : (n == Integer.MAX_VALUE) ? COLLECT_ALL : new VMode(n);
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	@Override
+	public String toString() {
+		return (this == FAIL_FAST) ? "FAIL_FAST" : (this == COLLECT_ALL) ? "COLLECT_ALL" : "COLLECT_UP_TO_" + limit;
+	}
+
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ClassUtils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * SpEL 表达式
+ * 
+ * <p> 解析分析期与运行时的表达式, 分析期的表达式不会被编译, 相同的表达式只解析一次.
+ * 运行时表达式按根对象类型共享, 按 {@link VEnv#SpEL_COMPILER_MODE} 解析, 并在首次求值后尝试将其编译为字节码.
+ * 无法编译的表达式会继续以解释模式执行, 并记录在 {@link #getUncompiledExpressions()} 中.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class VSpEL {
+
+	/** 以 {@link SpelCompilerMode#OFF} 解析的表达式, 不会被编译, 按表达式文本索引 */
+	private static final ConcurrentHashMap<String, CompilableExpression> CACHE = new ConcurrentHashMap<>();
+	/**
+	 * 可编译的表达式, 按根对象类型, 编译模式, 表达式文本索引
+	 * 
+	 * <p> 编译结果取决于根对象的类型, 因此仅根对象类型相同的表达式共享同一实例.
+	 * 以 {@link ClassValue} 缓存, 不会阻止根对象类型被卸载.
+	 */
+	private static final ClassValue<RootTypeCache> CACHE_BY_ROOT_TYPE = new ClassValue<RootTypeCache>() {
+		@Override
+		protected RootTypeCache computeValue(Class<?> type) {
+			return new RootTypeCache(GENERATION.get());
+		}
+	};
+	/** 调用 {@link #clearCache()} 的次数, 用于使 {@link #CACHE_BY_ROOT_TYPE} 失效 */
+	private static final AtomicInteger GENERATION = new AtomicInteger();
+
+	private static final Set<String> UNCOMPILED_EXPRESSIONS = ConcurrentHashMap.newKeySet();
+	private static final AtomicInteger COMPILED_COUNT = new AtomicInteger();
+
+	/**
+	 * 按 {@link VEnv#SpEL_COMPILER_MODE} 解析运行时表达式, 根对象类型未知
+	 * 
+	 * @param text 表达式文本
+	 * @return 表达式
+	 * @see #parse(String, SpelCompilerMode, Class)
+	 */
+	public static CompilableExpression parse(String text) {
+		return parse(text, VEnv.SpEL_COMPILER_MODE, null);
+	}
+
+	/**
+	 * 按 {@link VEnv#SpEL_COMPILER_MODE} 解析运行时表达式
+	 * 
+	 * @param text 表达式文本
+	 * @param rootType 根对象的类型, 未知时为 {@code null}
+	 * @return 表达式
+	 * @see #parse(String, SpelCompilerMode, Class)
+	 */
+	public static CompilableExpression parse(String text, Class<?> rootType) {
+		return parse(text, VEnv.SpEL_COMPILER_MODE, rootType);
+	}
+
+	/**
+	 * 解析表达式, 根对象类型未知
+	 * 
+	 * @param text 表达式文本
+	 * @param mode 编译模式
+	 * @return 表达式
+	 * @see #parse(String, SpelCompilerMode, Class)
+	 */
+	public static CompilableExpression parse(String text, SpelCompilerMode mode) {
+		return parse(text, mode, null);
+	}
+
+	/**
+	 * 解析表达式
+	 * 
+	 * <p> {@link SpelCompilerMode#OFF} 模式的表达式不会被编译, 按表达式文本缓存. 其余模式下按根对象类型,
+	 * 编译模式与表达式文本缓存, 根对象类型相同的约束共享同一实例; 根对象类型未知时每次调用都返回新的实例,
+	 * 以免不同类型的根对象共享编译结果, 使编译后的字节码在类型之间反复失效.
+	 * 
+	 * @param text 表达式文本
+	 * @param mode 编译模式
+	 * @param rootType 根对象的类型, 基本类型按其包装类型处理, 未知时为 {@code null}
+	 * @return 表达式
+	 */
+	public static CompilableExpression parse(String text, SpelCompilerMode mode, Class<?> rootType) {
+		if (mode == SpelCompilerMode.OFF) {
+			CompilableExpression expr = CACHE.get(text);
+			if (expr != null) return expr;
+			return CACHE.computeIfAbsent(text, t -> _parse(t, SpelCompilerMode.OFF));
+		}
+		if (rootType == null) return _parse(text, mode);
+		rootType = ClassUtils.resolvePrimitiveIfNecessary(rootType);
+		RootTypeCache cache = CACHE_BY_ROOT_TYPE.get(rootType);
+		if (cache.generation != GENERATION.get()) {
+			CACHE_BY_ROOT_TYPE.remove(rootType);
+			cache = CACHE_BY_ROOT_TYPE.get(rootType);
+		}
+		ConcurrentHashMap<String, CompilableExpression> expressions = cache.get(mode);
+		CompilableExpression expr = expressions.get(text);
+		if (expr != null) return expr;
+		return expressions.computeIfAbsent(text, t -> _parse(t, mode));
+	}
+
+	private static CompilableExpression _parse(String text, SpelCompilerMode mode) {
+		// 编译器使用线程上下文类加载器, 以便生成的字节码能访问 bean 类型
+		SpelParserConfiguration config = new SpelParserConfiguration(mode, null);
+		return new CompilableExpression((SpelExpression) new SpelExpressionParser(config).parseExpression(text), mode);
+	}
+
+	/** 清空已缓存的表达式 */
+	public static void clearCache() {
+		CACHE.clear();
+		GENERATION.incrementAndGet();
+	}
+
+	/** 同一根对象类型的可编译表达式, 按编译模式, 表达式文本索引 */
+	private static class RootTypeCache extends EnumMap<SpelCompilerMode, ConcurrentHashMap<String, CompilableExpression>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int generation;
+
+		public RootTypeCache(int generation) {
+			super(SpelCompilerMode.class);
+			this.generation = generation;
+			put(SpelCompilerMode.IMMEDIATE, new ConcurrentHashMap<>());
+			put(SpelCompilerMode.MIXED, new ConcurrentHashMap<>());
+		}
+	}
+
+	/**
+	 * 获取首次尝试编译失败, 仍以解释模式执行的表达式
+	 * 
+	 * @return 表达式文本, 不可修改
+	 */
+	public static Set<String> getUncompiledExpressions() {
+		return Collections.unmodifiableSet(UNCOMPILED_EXPRESSIONS);
+	}
+
+	/**
+	 * 获取已成功编译的表达式数量
+	 * 
+	 * @return 数量
+	 */
+	public static int getCompiledCount() {
+		return COMPILED_COUNT.get();
+	}
+
+	/**
+	 * 可编译的表达式
+	 * 
+	 * <p> 表达式需求值一次后才能确定各节点的类型, 故在首次求值成功后尝试编译. 编译后的表达式在
+	 * {@link SpelCompilerMode#MIXED} 模式下执行失败时会退回解释模式, 在
+	 * {@link SpelCompilerMode#IMMEDIATE} 模式下则会抛出异常.
+	 */
+	public static final class CompilableExpression {
+
+		private static final int PENDING = 0;
+		private static final int COMPILED = 1;
+		private static final int UNCOMPILED = 2;
+
+		private final SpelExpression expr;
+		private volatile int state;
+
+		private CompilableExpression(SpelExpression expr, SpelCompilerMode mode) {
+			this.expr = expr;
+			this.state = (mode == SpelCompilerMode.OFF) ? UNCOMPILED : PENDING;
+		}
+
+		public String getExpressionString() {
+			return expr.getExpressionString();
+		}
+
+		/** 以 {@link VEnv#SpEL_CTX} 的根对象求值, 不会尝试编译 */
+		public <T> T getValue(Class<T> type) {
+			return expr.getValue(VEnv.SpEL_CTX, type);
+		}
+
+		public <T> T getValue(Object root, Class<T> type) {
+			T value = expr.getValue(VEnv.SpEL_CTX, root, type);
+			if (state == PENDING) _compile();
+			return value;
+		}
+
+		private synchronized void _compile() {
+			if (state != PENDING) return;
+			if (expr.compileExpression()) {
+				state = COMPILED;
+				COMPILED_COUNT.incrementAndGet();
+			} else {
+				state = UNCOMPILED;
+				UNCOMPILED_EXPRESSIONS.add(expr.getExpressionString());
+			}
+		}
+
+		@Override
+		public String toString() {
+			return expr.getExpressionString();
+		}
+	}
+
+}
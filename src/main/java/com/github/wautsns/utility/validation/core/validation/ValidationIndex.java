@@ -0,0 +1,473 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.springframework.core.ResolvableType;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.Criterion.Definition;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 校验计划的二进制索引
+ * 
+ * <p> 构建时通过 {@link #main(String[])} 将 bean 类型已解析的约束定义写入 {@value #LOCATION}.
+ * 运行时按 bean 类型的类加载器加载其可见的索引, 并仅使用与类型位于同一类路径根的索引, 以文件形式存在的索引会被内存映射.
+ * 已索引的类型不再通过反射分析约束注解, 索引失效(如与类型不一致)时退回 {@link ValidationPlan#analyze(Class)}.
+ * 
+ * <p> 索引中的 SpEL 属性值已在构建时求值.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ValidationIndex {
+
+	/** 索引在类路径中的位置 */
+	public static final String LOCATION = "META-INF/wautsns-validation.idx";
+
+	private static final int MAGIC = 0x57564958;
+	private static final int VERSION = 1;
+
+	private static final byte CLASS = 0;
+	private static final byte FIELD = 1;
+	private static final byte METHOD = 2;
+
+	private static final byte ROOT = 0;
+	private static final byte ROOT_REF = 1;
+	private static final byte NODE = 2;
+
+	private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+	static {
+		for (Class<?> primitive : new Class<?>[] {
+				boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class,
+				double.class, void.class })
+			PRIMITIVES.put(primitive.getName(), primitive);
+	}
+
+	/**
+	 * 生成索引
+	 * 
+	 * <p> 用法: {@code ValidationIndex <输出目录> <bean 类名>...}, 输出目录通常为 {@code target/classes}
+	 * 
+	 * @param args 参数
+	 * @throws IOException 若写入失败
+	 * @throws ClassNotFoundException 若 bean 类型不存在
+	 */
+	public static void main(String[] args) throws IOException, ClassNotFoundException {
+		if (args.length < 1)
+			throw new IllegalArgumentException("用法: ValidationIndex <输出目录> <bean 类名>...");
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		List<Class<?>> types = new ArrayList<>(args.length - 1);
+		for (String name : Arrays.asList(args).subList(1, args.length))
+			types.add(Class.forName(name, false, loader));
+		Map<Class<?>, RuntimeException> skipped = write(Paths.get(args[0]).resolve(LOCATION), types);
+		skipped.forEach((type, e) -> System.err.println("跳过 " + type.getName() + ": " + e));
+	}
+
+	/**
+	 * 将 bean 类型已解析的约束定义写入索引
+	 * 
+	 * @param output 索引文件
+	 * @param types bean 类型
+	 * @return 无法写入索引的类型及原因, 这些类型在运行时通过反射分析
+	 * @throws IOException 若写入失败
+	 */
+	public static Map<Class<?>, RuntimeException> write(Path output, Collection<Class<?>> types) throws IOException {
+		Map<Class<?>, RuntimeException> skipped = new LinkedHashMap<>();
+		Map<String, byte[]> bodies = new LinkedHashMap<>();
+		for (Class<?> type : types) {
+			try {
+				bodies.put(type.getName(), _encode(type));
+			} catch (RuntimeException e) {
+				skipped.put(type, e);
+			}
+		}
+		int headerSize = 12;
+		for (String name : bodies.keySet())
+			headerSize += 4 + name.getBytes(StandardCharsets.UTF_8).length + 4;
+		if (output.getParent() != null)
+			Files.createDirectories(output.getParent());
+		try (OutputStream file = Files.newOutputStream(output)) {
+			DataOutputStream out = new DataOutputStream(file);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(bodies.size());
+			int offset = headerSize;
+			for (Map.Entry<String, byte[]> body : bodies.entrySet()) {
+				_writeString(out, body.getKey());
+				out.writeInt(offset);
+				offset += body.getValue().length;
+			}
+			for (byte[] body : bodies.values())
+				out.write(body);
+			out.flush();
+		}
+		return skipped;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static byte[] _encode(Class<?> type) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			List<Object[]> entries = new ArrayList<>();
+			List<Definition[]> typeChains = Criterion.Analyzer.definitionsOf(type.getDeclaredAnnotations());
+			if (!typeChains.isEmpty())
+				entries.add(new Object[] { null, type.getSimpleName(), typeChains });
+			ValidationPlan.forEachMember(type, member -> {
+				Annotation[] annotations;
+				if (member instanceof Method) {
+					Method method = (Method) member;
+					if (method.getReturnType() == void.class || method.getParameterCount() != 0) return;
+					annotations = method.getDeclaredAnnotations();
+				} else
+					annotations = ((Field) member).getDeclaredAnnotations();
+				List<Definition[]> chains = Criterion.Analyzer.definitionsOf(annotations);
+				if (!chains.isEmpty())
+					entries.add(new Object[] { member, Criterion.Analyzer.positionOf(member), chains });
+			});
+			out.writeInt(entries.size());
+			for (Object[] entry : entries) {
+				Member member = (Member) entry[0];
+				out.writeByte((member == null) ? CLASS : (member instanceof Field) ? FIELD : METHOD);
+				out.writeInt((member == null) ? 0 : _levelOf(type, member.getDeclaringClass()));
+				_writeString(out, (member == null) ? "" : member.getName());
+				_writeString(out, (String) entry[1]);
+				_writeChains(out, (List<Definition[]>) entry[2]);
+			}
+			out.flush();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new RuntimeException("unreachable");
+		}
+	}
+
+	private static int _levelOf(Class<?> type, Class<?> declaringClass) {
+		int level = 0;
+		for (Class<?> curr = type; curr != declaringClass; curr = curr.getSuperclass())
+			level++;
+		return level;
+	}
+
+	private static void _writeChains(DataOutputStream out, List<Definition[]> chains) throws IOException {
+		out.writeInt(chains.size());
+		for (Definition[] chain : chains) {
+			out.writeInt(chain.length);
+			for (int i = 0; i < chain.length; i++) {
+				if (i != 0 && chain[i] == chain[0]) {
+					out.writeByte(ROOT_REF);
+					continue;
+				}
+				out.writeByte((i == 0) ? ROOT : NODE);
+				_writeString(out, chain[i].getType().getName());
+				out.writeBoolean(chain[i].isSharesRootMessage());
+				Map<String, Object> data = chain[i].getData();
+				out.writeInt(data.size());
+				for (Map.Entry<String, Object> attr : data.entrySet()) {
+					_writeString(out, attr.getKey());
+					_writeValue(out, attr.getValue());
+				}
+			}
+		}
+	}
+
+	private static void _writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte('N');
+		} else if (value instanceof Boolean) {
+			out.writeByte('Z');
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof Byte) {
+			out.writeByte('B');
+			out.writeByte((Byte) value);
+		} else if (value instanceof Character) {
+			out.writeByte('C');
+			out.writeChar((Character) value);
+		} else if (value instanceof Short) {
+			out.writeByte('S');
+			out.writeShort((Short) value);
+		} else if (value instanceof Integer) {
+			out.writeByte('I');
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte('J');
+			out.writeLong((Long) value);
+		} else if (value instanceof Float) {
+			out.writeByte('F');
+			out.writeFloat((Float) value);
+		} else if (value instanceof Double) {
+			out.writeByte('D');
+			out.writeDouble((Double) value);
+		} else if (value instanceof String) {
+			out.writeByte('s');
+			_writeString(out, (String) value);
+		} else if (value instanceof Class) {
+			out.writeByte('c');
+			_writeString(out, ((Class<?>) value).getName());
+		} else if (value instanceof Enum) {
+			out.writeByte('e');
+			_writeString(out, ((Enum<?>) value).getDeclaringClass().getName());
+			_writeString(out, ((Enum<?>) value).name());
+		} else if (value.getClass().isArray()) {
+			out.writeByte('[');
+			_writeString(out, value.getClass().getComponentType().getName());
+			int length = Array.getLength(value);
+			out.writeInt(length);
+			for (int i = 0; i < length; i++)
+				_writeValue(out, Array.get(value, i));
+		} else {
+			throw new IllegalArgumentException("不支持的属性值类型: " + value.getClass().getName());
+		}
+	}
+
+	private static void _writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * 类路径中的索引
+	 * 
+	 * <p> 按类加载器分别加载其可见的索引, 不会阻止类加载器被卸载. 每个类加载器的索引按所在的类路径根
+	 * (如 jar 或目录)分组, 键为类名, 值的位置为该类型的起始位置. 类型仅使用与其类文件位于同一类路径根的索引,
+	 * 因此不同类加载器中的同名类型互不影响.
+	 */
+	private static class Indexes {
+
+		private static final Map<ClassLoader, Map<String, Map<String, ByteBuffer>>> BY_LOADER = new WeakHashMap<>();
+
+		/**
+		 * 获取类型的索引
+		 * 
+		 * @param type bean 类型
+		 * @return 索引, 值的位置为该类型的起始位置, 若类型未被索引则返回 {@code null}
+		 */
+		static ByteBuffer get(Class<?> type) {
+			ClassLoader loader = type.getClassLoader();
+			if (loader == null) return null;
+			String classFile = type.getName().replace('.', '/') + ".class";
+			URL url = loader.getResource(classFile);
+			if (url == null) return null;
+			Map<String, Map<String, ByteBuffer>> roots;
+			synchronized (BY_LOADER) {
+				roots = BY_LOADER.computeIfAbsent(loader, Indexes::_load);
+			}
+			Map<String, ByteBuffer> types = roots.get(_rootOf(url, classFile));
+			return (types == null) ? null : types.get(type.getName());
+		}
+
+		private static Map<String, Map<String, ByteBuffer>> _load(ClassLoader loader) {
+			Map<String, Map<String, ByteBuffer>> roots = new HashMap<>();
+			try {
+				Enumeration<URL> urls = loader.getResources(LOCATION);
+				while (urls.hasMoreElements()) {
+					URL url = urls.nextElement();
+					roots.putIfAbsent(_rootOf(url, LOCATION), _load(url));
+				}
+			} catch (IOException e) {
+				// 忽略无法读取的类路径, 对应类型将通过反射分析
+			}
+			return roots;
+		}
+
+		private static Map<String, ByteBuffer> _load(URL url) {
+			Map<String, ByteBuffer> types = new HashMap<>();
+			try {
+				ByteBuffer buffer = _read(url);
+				if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return types;
+				int count = buffer.getInt();
+				for (int i = 0; i < count; i++) {
+					String name = _readString(buffer);
+					ByteBuffer body = buffer.duplicate();
+					body.position(buffer.getInt());
+					types.putIfAbsent(name, body);
+				}
+			} catch (IOException | URISyntaxException | RuntimeException e) {
+				// 忽略已损坏的索引
+				types.clear();
+			}
+			return types;
+		}
+
+		/** 资源所在的类路径根, 如 {@code jar:file:/app.jar!/} */
+		private static String _rootOf(URL url, String resource) {
+			String external = url.toExternalForm();
+			return external.endsWith(resource) ? external.substring(0, external.length() - resource.length()) : external;
+		}
+
+		private static ByteBuffer _read(URL url) throws IOException, URISyntaxException {
+			if ("file".equals(url.getProtocol())) {
+				try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+					return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				}
+			}
+			try (InputStream in = url.openStream()) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				for (int n; (n = in.read(buffer)) != -1;)
+					bytes.write(buffer, 0, n);
+				return ByteBuffer.wrap(bytes.toByteArray());
+			}
+		}
+	}
+
+	/**
+	 * 根据索引创建校验计划
+	 * 
+	 * @param type bean 类型
+	 * @return 校验计划, 若类型未被索引则返回 {@code null}
+	 * @throws ReflectiveOperationException 若类型中不存在索引时记录的成员或类型
+	 */
+	static ValidationPlan newPlan(Class<?> type) throws ReflectiveOperationException {
+		ByteBuffer in = Indexes.get(type);
+		if (in == null) return null;
+		in = in.duplicate();
+		ClassLoader loader = type.getClassLoader();
+		ValidationPlan.Builder builder = ValidationPlan.builder(type);
+		int entryCount = in.getInt();
+		for (int i = 0; i < entryCount; i++) {
+			byte kind = in.get();
+			Class<?> owner = type;
+			for (int level = in.getInt(); level > 0; level--)
+				owner = owner.getSuperclass();
+			String name = _readString(in);
+			String position = _readString(in);
+			List<Definition[]> chains = _readChains(in, loader);
+			if (kind == CLASS) {
+				builder.add(null, Criterion.Analyzer.analyze(position, ResolvableType.forClass(type), chains));
+			} else if (kind == FIELD) {
+				Field field = owner.getDeclaredField(name);
+				builder.add(field, Criterion.Analyzer.analyze(position, ResolvableType.forField(field), chains));
+			} else {
+				Method method = owner.getDeclaredMethod(name);
+				builder.add(method,
+					Criterion.Analyzer.analyze(position, ResolvableType.forMethodReturnType(method), chains));
+			}
+		}
+		return builder.build();
+	}
+
+	private static List<Definition[]> _readChains(ByteBuffer in, ClassLoader loader) throws ClassNotFoundException {
+		int count = in.getInt();
+		List<Definition[]> chains = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Definition[] chain = new Definition[in.getInt()];
+			for (int j = 0; j < chain.length; j++) {
+				if (in.get() == ROOT_REF) {
+					chain[j] = chain[0];
+					continue;
+				}
+				Class<? extends Annotation> type = _classFor(_readString(in), loader).asSubclass(Annotation.class);
+				Definition definition = new Definition(type, in.get() != 0);
+				for (int attrs = in.getInt(); attrs > 0; attrs--)
+					definition.with(_readString(in), _readValue(in, loader));
+				chain[j] = definition;
+			}
+			chains.add(chain);
+		}
+		return chains;
+	}
+
+	private static Object _readValue(ByteBuffer in, ClassLoader loader) throws ClassNotFoundException {
+		byte tag = in.get();
+		switch (tag) {
+			case 'N':
+				return null;
+			case 'Z':
+				return in.get() != 0;
+			case 'B':
+				return in.get();
+			case 'C':
+				return in.getChar();
+			case 'S':
+				return in.getShort();
+			case 'I':
+				return in.getInt();
+			case 'J':
+				return in.getLong();
+			case 'F':
+				return in.getFloat();
+			case 'D':
+				return in.getDouble();
+			case 's':
+				return _readString(in);
+			case 'c':
+				return _classFor(_readString(in), loader);
+			case 'e':
+				return _enumFor(_classFor(_readString(in), loader), _readString(in));
+			case '[':
+				Class<?> componentType = _classFor(_readString(in), loader);
+				int length = in.getInt();
+				Object array = Array.newInstance(componentType, length);
+				for (int i = 0; i < length; i++)
+					Array.set(array, i, _readValue(in, loader));
+				return array;
+			default:
+				throw new IllegalStateException("无效的索引值类型: " + (char) tag);
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object _enumFor(Class<?> type, String name) {
+		return Enum.valueOf((Class) type, name);
+	}
+
+	private static Class<?> _classFor(String name, ClassLoader loader) throws ClassNotFoundException {
+		Class<?> primitive = PRIMITIVES.get(name);
+		return (primitive != null) ? primitive : Class.forName(name, false, loader);
+	}
+
+	private static String _readString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.List;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+/**
+ * 校验事件的监听器, 通过 {@link ValidationListeners#add(ValidationListener)} 注册
+ * 
+ * <p> 同一次校验的事件在执行校验的线程上按顺序发出, 不同线程上的校验会并发调用监听器,
+ * 因此实现需保证线程安全. 监听器抛出的异常会中断校验并传播给调用者.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public interface ValidationListener {
+
+	/**
+	 * 开始按校验计划校验 bean
+	 * 
+	 * @param plan 校验计划
+	 * @param bean 待校验的 bean
+	 */
+	default void onPlanStart(ValidationPlan plan, Object bean) {}
+
+	/**
+	 * 约束执行完毕, depth 非空的约束在遍历完容器后触发一次
+	 * 
+	 * @param criterion 约束
+	 * @param value 成员的值
+	 * @param violated 是否产生了违规信息
+	 */
+	default void onCriterionEvaluated(Criterion criterion, Object value, boolean violated) {}
+
+	/**
+	 * 约束产生了违规信息, 在 {@link #onCriterionEvaluated(Criterion, Object, boolean)} 之后触发
+	 * 
+	 * @param criterion 约束
+	 * @param violation 违规信息
+	 */
+	default void onViolation(Criterion criterion, CriterionViolation violation) {}
+
+	/**
+	 * 校验结束, 包括因达到上限而提前结束, 以及因异常而中断
+	 * 
+	 * @param plan 校验计划
+	 * @param bean 待校验的 bean
+	 * @param violations 本次校验产生的违规信息, 仅在该方法内有效
+	 */
+	default void onPlanEnd(ValidationPlan plan, Object bean, List<CriterionViolation> violations) {}
+
+}
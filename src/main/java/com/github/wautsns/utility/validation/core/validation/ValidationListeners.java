@@ -0,0 +1,129 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 已注册的 {@link ValidationListener}
+ * 
+ * <p> 采用写时复制: 注册与注销时替换整个数组, 校验时只读取一次数组的快照. 未注册监听器时,
+ * 校验器走原有的执行路径, 不会为事件分配任何对象.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ValidationListeners {
+
+	private static final ValidationListener[] NONE = {};
+
+	private static volatile ValidationListener[] listeners = NONE;
+
+	/**
+	 * 注册监听器, 对此后开始的校验生效
+	 * 
+	 * @param listener 监听器
+	 */
+	public static synchronized void add(ValidationListener listener) {
+		if (listener == null) throw new IllegalArgumentException("listener 不能为 null");
+		ValidationListener[] temp = Arrays.copyOf(listeners, listeners.length + 1);
+		temp[temp.length - 1] = listener;
+		listeners = temp;
+	}
+
+	/**
+	 * 注销监听器, 对此后开始的校验生效
+	 * 
+	 * @param listener 监听器
+	 * @return 若监听器已注册则返回 {@code true}
+	 */
+	public static synchronized boolean remove(ValidationListener listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] != listener) continue;
+			ValidationListener[] temp = new ValidationListener[listeners.length - 1];
+			System.arraycopy(listeners, 0, temp, 0, i);
+			System.arraycopy(listeners, i + 1, temp, i, temp.length - i);
+			listeners = (temp.length == 0) ? NONE : temp;
+			return true;
+		}
+		return false;
+	}
+
+	static ValidationListener[] get() {
+		return listeners;
+	}
+
+	/**
+	 * 按校验计划校验 bean, 并向监听器发出事件
+	 * 
+	 * <p> 逐个调用 {@link Criterion#test(Object, List, int)}, 结果与各引擎一致
+	 * 
+	 * @param plan 校验计划
+	 * @param bean 待校验的 bean
+	 * @param violations 违规信息
+	 * @param mode 校验模式
+	 * @param listeners 监听器快照, 不能为空
+	 */
+	static void validate(
+			ValidationPlan plan, Object bean, List<CriterionViolation> violations, VMode mode,
+			ValidationListener[] listeners) {
+		int from = violations.size();
+		int limit = mode.getLimit();
+		for (ValidationListener listener : listeners)
+			listener.onPlanStart(plan, bean);
+		try {
+			if (from < limit) _execute(plan, bean, violations, limit, listeners);
+		} finally {
+			List<CriterionViolation> produced = violations.subList(from, violations.size());
+			for (ValidationListener listener : listeners)
+				listener.onPlanEnd(plan, bean, produced);
+		}
+	}
+
+	private static void _execute(
+			ValidationPlan plan, Object bean, List<CriterionViolation> violations, int limit,
+			ValidationListener[] listeners) {
+		for (ValidationPlan.Entry entry : plan.getEntries()) {
+			Object value = entry.read(bean);
+			for (Criterion criterion : entry.getCriteria()) {
+				int before = violations.size();
+				boolean hasNext = criterion.test(value, violations, limit);
+				int after = violations.size();
+				for (ValidationListener listener : listeners)
+					listener.onCriterionEvaluated(criterion, value, after > before);
+				if (after > before) {
+					ListIterator<CriterionViolation> iterator = violations.listIterator(before);
+					while (iterator.hasNext()) {
+						CriterionViolation violation = iterator.next();
+						for (ValidationListener listener : listeners)
+							listener.onViolation(criterion, violation);
+					}
+				}
+				if (!hasNext) return;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,336 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+
+/**
+ * bean 类型的校验计划
+ *
+ * <p> 按类, 字段, getter 的顺序记录每个成员上的约束
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class ValidationPlan {
+
+	private Class<?> type;
+	private LinkedList<Entry> entries;
+
+	/** 按单个组筛选后的校验计划, 键为未展开的组, 使常见的调用无需展开组, 仅完整的校验计划持有 */
+	private ConcurrentHashMap<Class<?>, ValidationPlan> plansBySingleGroup;
+	/** 按组筛选后的校验计划, 键为已展开的组的掩码, 仅完整的校验计划持有 */
+	private ConcurrentHashMap<Long, ValidationPlan> plansByGroups;
+	/** 组的数量超出掩码位数时按组筛选后的校验计划, 键为已展开的组, 仅完整的校验计划持有 */
+	private ConcurrentHashMap<Set<Class<?>>, ValidationPlan> plansByOverflowGroups;
+
+	/** 由 {@link BeanValidators} 维护 */
+	volatile BeanValidator reflectiveValidator;
+	volatile BeanValidator bytecodeValidator;
+	volatile Throwable bytecodeFailure;
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * 获取生成字节码校验器失败的原因
+	 * 
+	 * <p> 使用 {@link VEnv.Engine#BYTECODE} 时若生成失败, 该校验计划将退回反射引擎, 并记录失败的原因
+	 * 
+	 * @return 失败的原因, 未失败或尚未生成时返回 {@code null}
+	 */
+	public Throwable getBytecodeFailure() {
+		return bytecodeFailure;
+	}
+
+	/**
+	 * 获取仅包含指定组的约束的校验计划
+	 * 
+	 * <p> 若约束的组与指定组存在交集, 则保留该约束. 筛选结果按组的组合缓存, 未指定组或仅指定一个组时
+	 * 直接按该组查找, 不会分配对象.
+	 * 
+	 * @param groups 组, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 * @return 校验计划
+	 */
+	public ValidationPlan forGroups(Class<?>... groups) {
+		if (plansByGroups == null)
+			throw new IllegalStateException("只能从完整的校验计划中筛选");
+		if (groups.length == 0) groups = VGroups.DEFAULT_GROUPS;
+		if (groups.length != 1) return _forGroups(groups);
+		ValidationPlan plan = plansBySingleGroup.get(groups[0]);
+		if (plan != null) return plan;
+		plan = _forGroups(groups);
+		ValidationPlan existing = plansBySingleGroup.putIfAbsent(groups[0], plan);
+		return (existing == null) ? plan : existing;
+	}
+
+	private ValidationPlan _forGroups(Class<?>[] groups) {
+		Class<?>[] flattened = VGroups.flatten(groups);
+		long mask = VGroups.maskOf(flattened);
+		if ((mask & VGroups.OVERFLOW_BIT) != 0) {
+			Set<Class<?>> key = new HashSet<>(Arrays.asList(flattened));
+			ValidationPlan plan = plansByOverflowGroups.get(key);
+			if (plan != null) return plan;
+			return plansByOverflowGroups.computeIfAbsent(key, k -> _filter(mask, flattened));
+		}
+		ValidationPlan plan = plansByGroups.get(mask);
+		if (plan != null) return plan;
+		return plansByGroups.computeIfAbsent(mask, m -> _filter(m, flattened));
+	}
+
+	private ValidationPlan _filter(long mask, Class<?>[] groups) {
+		ValidationPlan plan = new ValidationPlan();
+		plan.type = type;
+		plan.entries = new LinkedList<>();
+		for (Entry entry : entries) {
+			LinkedList<Criterion> criteria = entry.criteria.stream()
+				.filter(c -> VGroups.intersects(c.getGroupMask(), c.getGroups(), mask, groups))
+				.collect(Collectors.toCollection(LinkedList::new));
+			if (criteria.isEmpty()) continue;
+			plan.entries.add(_newEntry(entry.member, criteria));
+		}
+		return plan;
+	}
+
+	public static class Entry {
+
+		/** 值的来源, 为 {@code null} 时表示 bean 自身 */
+		private Member member;
+		private LinkedList<Criterion> criteria;
+		private boolean longValued;
+
+		public Member getMember() {
+			return member;
+		}
+
+		public List<Criterion> getCriteria() {
+			return criteria;
+		}
+
+		/**
+		 * 是否可以通过 {@link #readLong(Object)} 读取值
+		 * 
+		 * <p> 成员的类型为 {@code long}, {@code int}, {@code short} 或 {@code byte}, 且所有约束的 depth 为空,
+		 * 值处理器仅做数值转换时成立. 此时可直接以长整数执行约束, 不会装箱.
+		 * 
+		 * @return 若可以则返回 {@code true}
+		 * @see Criterion#test(long)
+		 */
+		public boolean isLongValued() {
+			return longValued;
+		}
+
+		public Object read(Object bean) {
+			try {
+				if (member == null)
+					return bean;
+				else if (member instanceof Field)
+					return ((Field) member).get(bean);
+				else
+					return ((Method) member).invoke(bean);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * 以长整数读取值, 仅适用于 {@link #isLongValued()} 成立的成员
+		 * 
+		 * @param bean bean
+		 * @return 值
+		 */
+		public long readLong(Object bean) {
+			try {
+				if (member instanceof Field)
+					return ((Field) member).getLong(bean);
+				else
+					return ((Number) ((Method) member).invoke(bean)).longValue();
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static final ClassValue<ValidationPlan> PLANS = new ClassValue<ValidationPlan>() {
+		@Override
+		protected ValidationPlan computeValue(Class<?> type) {
+			try {
+				ValidationPlanProvider provider = _findProvider(type);
+				if (provider != null) return provider.newPlan();
+			} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+				// 生成的校验计划已失效, 退回反射分析
+			}
+			try {
+				ValidationPlan plan = ValidationIndex.newPlan(type);
+				if (plan != null) return plan;
+			} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+				// 索引已失效, 退回反射分析
+			}
+			return analyze(type);
+		}
+	};
+
+	/** 编译期生成的校验计划提供者的类名后缀 */
+	private static final String PROVIDER_SUFFIX = "$$ValidationPlan";
+
+	/**
+	 * 从类型自身的类加载器中查找编译期生成的 {@code <Type>$$ValidationPlan}
+	 * 
+	 * @param type bean 类型
+	 * @return 提供者, 不存在或与类型不一致时返回 {@code null}
+	 * @throws ReflectiveOperationException 若提供者无法实例化
+	 */
+	private static ValidationPlanProvider _findProvider(Class<?> type) throws ReflectiveOperationException {
+		Class<?> providerType;
+		try {
+			providerType = Class.forName(type.getName() + PROVIDER_SUFFIX, false, type.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+		if (!ValidationPlanProvider.class.isAssignableFrom(providerType)) return null;
+		ValidationPlanProvider provider = (ValidationPlanProvider) providerType.newInstance();
+		return (provider.getType() == type) ? provider : null;
+	}
+
+	/**
+	 * 获取指定类型的完整校验计划, 即包含所有组的约束
+	 * 
+	 * <p> 校验计划以 {@link ClassValue} 缓存, 不会阻止类型被卸载. 依次尝试该类型的类加载器中的
+	 * {@link ValidationPlanProvider} 与 {@link ValidationIndex}, 均不存在时才通过反射分析.
+	 * 
+	 * @param type bean 类型
+	 * @return 校验计划
+	 */
+	public static ValidationPlan of(Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * 分析指定类型的校验计划, 不使用缓存
+	 * 
+	 * @param type bean 类型
+	 * @return 校验计划
+	 */
+	public static ValidationPlan analyze(Class<?> type) {
+		ValidationPlan plan = new ValidationPlan();
+		plan.type = type;
+		plan.entries = new LinkedList<>();
+		plan.plansBySingleGroup = new ConcurrentHashMap<>(4);
+		plan.plansByGroups = new ConcurrentHashMap<>(4);
+		plan.plansByOverflowGroups = new ConcurrentHashMap<>(4);
+		_addEntry(plan, null, Criterion.Analyzer.analyzeAnnosOn(type));
+		forEachMember(type, member -> _addEntry(plan, member, (member instanceof Field)
+			? Criterion.Analyzer.analyzeAnnosOn((Field) member)
+			: Criterion.Analyzer.analyzeAnnosOn((Method) member)));
+		return plan;
+	}
+
+	/**
+	 * 按分析顺序遍历可能存在约束的字段与方法, 包括父类中的成员
+	 * 
+	 * @param type bean 类型
+	 * @param action 对成员执行的操作
+	 */
+	static void forEachMember(Class<?> type, Consumer<Member> action) {
+		for (Class<?> curr = type; curr != null && curr != Object.class; curr = curr.getSuperclass()) {
+			for (Field field : curr.getDeclaredFields())
+				if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+					action.accept(field);
+			for (Method method : curr.getDeclaredMethods())
+				if (!Modifier.isStatic(method.getModifiers()) && !method.isSynthetic() && !method.isBridge())
+					action.accept(method);
+		}
+	}
+
+	/**
+	 * 创建校验计划的构建器, 供 {@link ValidationPlanProvider} 使用
+	 * 
+	 * @param type bean 类型
+	 * @return 构建器
+	 */
+	public static Builder builder(Class<?> type) {
+		return new Builder(type);
+	}
+
+	public static class Builder {
+
+		private final ValidationPlan plan = new ValidationPlan();
+
+		private Builder(Class<?> type) {
+			plan.type = type;
+			plan.entries = new LinkedList<>();
+			plan.plansBySingleGroup = new ConcurrentHashMap<>(4);
+			plan.plansByGroups = new ConcurrentHashMap<>(4);
+			plan.plansByOverflowGroups = new ConcurrentHashMap<>(4);
+		}
+
+		/**
+		 * 添加成员上的约束, 约束为空时忽略
+		 * 
+		 * @param member 值的来源, 为 {@code null} 时表示 bean 自身
+		 * @param criteria 约束
+		 * @return 自身
+		 */
+		public Builder add(Member member, LinkedList<Criterion> criteria) {
+			_addEntry(plan, member, criteria);
+			return this;
+		}
+
+		public ValidationPlan build() {
+			return plan;
+		}
+	}
+
+	private static void _addEntry(ValidationPlan plan, Member member, LinkedList<Criterion> criteria) {
+		if (criteria == null || criteria.isEmpty()) return;
+		if (member instanceof Field)
+			((Field) member).setAccessible(true);
+		else if (member instanceof Method)
+			((Method) member).setAccessible(true);
+		plan.entries.add(_newEntry(member, criteria));
+	}
+
+	private static Entry _newEntry(Member member, LinkedList<Criterion> criteria) {
+		Entry entry = new Entry();
+		entry.member = member;
+		entry.criteria = criteria;
+		Class<?> type = (member instanceof Field)
+			? ((Field) member).getType()
+			: (member instanceof Method) ? ((Method) member).getReturnType() : null;
+		entry.longValued = (type == long.class || type == int.class || type == short.class || type == byte.class)
+			&& criteria.stream().allMatch(Criterion::isLongValued);
+		return entry;
+	}
+
+}
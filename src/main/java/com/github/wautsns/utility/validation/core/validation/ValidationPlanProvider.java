@@ -0,0 +1,45 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+/**
+ * 编译期生成的校验计划提供者
+ * 
+ * <p> 类名为 bean 类型的二进制名加上 {@code $$ValidationPlan}, 运行时从 bean 类型的类加载器中按类名查找,
+ * 并通过公共的无参构造器实例化. 存在提供者的类型不再通过反射分析约束注解,
+ * 提供者失效(如与类型不一致)时退回 {@link ValidationPlan#analyze(Class)}.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public interface ValidationPlanProvider {
+
+	/**
+	 * 获取 bean 类型
+	 * 
+	 * @return bean 类型
+	 */
+	Class<?> getType();
+
+	/**
+	 * 创建完整的校验计划, 即包含所有组的约束
+	 * 
+	 * @return 校验计划
+	 * @throws ReflectiveOperationException 若类型中不存在生成时记录的成员
+	 */
+	ValidationPlan newPlan() throws ReflectiveOperationException;
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+/**
+ * 可重置并复用的违规信息收集器
+ * 
+ * <p> 作为 {@code violations} 传入 {@link BeanValidator#validate(Object, List, VMode)} 后, 通过
+ * {@link #toResult()} 取得结果, 未产生违规信息时返回共享的不可变空列表. 收集器非线程安全, 可以自行创建并在
+ * 同一线程中反复使用, 也可以通过 {@link #acquire()} 借用当前线程的收集器. 校验合法的 bean 时, 二者都不会分配对象.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public final class ViolationCollector extends AbstractList<CriterionViolation> implements RandomAccess {
+
+	/** 未产生违规信息时的结果 */
+	public static final List<CriterionViolation> EMPTY = Collections.emptyList();
+
+	private static final CriterionViolation[] NONE = {};
+	/** 归还时超过该容量的数组不再保留 */
+	private static final int MAX_RETAINED_CAPACITY = 1 << 10;
+	private static final ThreadLocal<ViolationCollector> CURRENT = ThreadLocal.withInitial(ViolationCollector::new);
+
+	private CriterionViolation[] elements = NONE;
+	private int size;
+	private boolean borrowed;
+
+	/**
+	 * 借用当前线程的收集器, 使用完毕后需调用 {@link #release()}
+	 * 
+	 * <p> 若当前线程的收集器已被借出(如在校验过程中再次校验), 则返回新的收集器
+	 * 
+	 * @return 空的收集器
+	 */
+	public static ViolationCollector acquire() {
+		ViolationCollector collector = CURRENT.get();
+		if (collector.borrowed) collector = new ViolationCollector();
+		collector.borrowed = true;
+		return collector;
+	}
+
+	/** 清空并归还借用的收集器, 过大的容量不会被保留 */
+	public void release() {
+		if (elements.length > MAX_RETAINED_CAPACITY) {
+			elements = NONE;
+			size = 0;
+			modCount++;
+		} else {
+			reset();
+		}
+		borrowed = false;
+	}
+
+	/** 清空收集器, 保留已分配的容量 */
+	public void reset() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * 获取收集结果, 收集器之后仍可被重置
+	 * 
+	 * @return 未产生违规信息时返回 {@link #EMPTY}, 否则返回违规信息的副本
+	 */
+	public List<CriterionViolation> toResult() {
+		return (size == 0) ? EMPTY : new ArrayList<>(this);
+	}
+
+	@Override
+	public boolean add(CriterionViolation violation) {
+		if (size == elements.length)
+			elements = Arrays.copyOf(elements, Math.max(8, size << 1));
+		elements[size++] = violation;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public CriterionViolation get(int index) {
+		if (index >= size) throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		return elements[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		reset();
+	}
+
+	@Override
+	public Object[] toArray() {
+		return Arrays.copyOf(elements, size, Object[].class);
+	}
+
+}
@@ -0,0 +1,361 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.validation.compiler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.convert.converter.Converter;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionMetrics;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+import com.github.wautsns.utility.validation.core.criterion.handlers.LongRange;
+import com.github.wautsns.utility.validation.core.validation.BeanValidator;
+import com.github.wautsns.utility.validation.core.validation.VMode;
+import com.github.wautsns.utility.validation.core.validation.ValidationPlan;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 将校验计划编译为字节码校验器
+ *
+ * <p> 每个 bean 类型生成一个类, 成员读取句柄, 值转换器, 值断言器均保存在该类的 {@code static final} 字段中,
+ * 每个约束拥有独立的调用点, 以便 JIT 内联. 生成的类由独立的类加载器加载, 不再被引用时可被卸载.
+ *
+ * <p> depth 非空的约束通过 {@link Criterion#test(Object, List, int)} 遍历容器
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BeanValidatorCompiler {
+
+	private static final String PACKAGE = BeanValidatorCompiler.class.getPackage().getName().replace('.', '/');
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+	private static final ThreadLocal<Object[]> CONSTANTS = new ThreadLocal<>();
+
+	private static final String OBJECT = Type.getInternalName(Object.class);
+	private static final String LIST = Type.getInternalName(List.class);
+	private static final String CRITERION = Type.getInternalName(Criterion.class);
+	private static final String CONVERTER = Type.getInternalName(Converter.class);
+	private static final String PREDICATE = Type.getInternalName(Predicate.class);
+	private static final String TO_LONG_FUNCTION = Type.getInternalName(ToLongFunction.class);
+	private static final String LONG_PREDICATE = Type.getInternalName(LongPredicate.class);
+	private static final String METHOD_HANDLE = Type.getInternalName(MethodHandle.class);
+	private static final String DESC_OBJECT = Type.getDescriptor(Object.class);
+	private static final String DESC_VALIDATE = Type.getMethodDescriptor(
+		Type.VOID_TYPE, Type.getType(Object.class), Type.getType(List.class), Type.getType(VMode.class));
+
+	private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType LONG_READER_TYPE = MethodType.methodType(long.class, Object.class);
+
+	/**
+	 * 编译校验计划
+	 * 
+	 * @param plan 校验计划
+	 * @return 字节码校验器
+	 */
+	public static BeanValidator compile(ValidationPlan plan) {
+		String name = PACKAGE + "/" + plan.getType().getSimpleName() + "$$BeanValidator$$" + COUNTER.incrementAndGet();
+		List<Object> constants = new ArrayList<>();
+		List<String> descriptors = new ArrayList<>();
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+			@Override
+			protected String getCommonSuperClass(String type1, String type2) {
+				return OBJECT;
+			}
+		};
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, name, null, OBJECT,
+			new String[] { Type.getInternalName(BeanValidator.class) });
+		_visitConstructor(cw);
+		_visitValidate(cw, name, plan, constants, descriptors);
+		_visitConstants(cw, name, descriptors);
+		cw.visitEnd();
+		byte[] bytecode = cw.toByteArray();
+		GeneratedClassLoader loader = new GeneratedClassLoader(BeanValidatorCompiler.class.getClassLoader());
+		CONSTANTS.set(constants.toArray());
+		try {
+			Class<?> clazz = loader.define(name.replace('/', '.'), bytecode);
+			return (BeanValidator) clazz.newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			CONSTANTS.remove();
+		}
+	}
+
+	/**
+	 * 获取编译时的常量
+	 * 
+	 * <p> 仅供生成的类在初始化时调用
+	 * 
+	 * @return 常量
+	 */
+	public static Object[] takeConstants() {
+		Object[] constants = CONSTANTS.get();
+		CONSTANTS.remove();
+		return constants;
+	}
+
+	private static void _visitConstructor(ClassWriter cw) {
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void _visitValidate(
+			ClassWriter cw, String name, ValidationPlan plan, List<Object> constants, List<String> descriptors) {
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "validate", DESC_VALIDATE, null, null);
+		mv.visitCode();
+		// 局部变量: 0 this, 1 bean, 2 violations, 3 mode, 4 成员值, 5 转换后的值或违规信息, 6 转换后的长整数值, 8 上限
+		mv.visitVarInsn(Opcodes.ALOAD, 3);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(VMode.class), "getLimit", "()I", false);
+		mv.visitVarInsn(Opcodes.ISTORE, 8);
+		_visitReturnIfLimitReached(mv);
+		for (ValidationPlan.Entry entry : plan.getEntries()) {
+			if (entry.isLongValued()) {
+				// 直接读取基本类型的值, 不装箱
+				_visitConstant(mv, name, constants, descriptors,
+					_newReader(entry.getMember(), LONG_READER_TYPE), METHOD_HANDLE);
+				mv.visitVarInsn(Opcodes.ALOAD, 1);
+				mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact",
+					LONG_READER_TYPE.toMethodDescriptorString(), false);
+				mv.visitVarInsn(Opcodes.LSTORE, 6);
+				for (Criterion criterion : entry.getCriteria())
+					if (CriterionMetrics.isEnabled())
+						_visitLongTest(mv, name, constants, descriptors, criterion);
+					else
+						_visitLongPredicate(mv, name, constants, descriptors, criterion, new Label());
+				continue;
+			}
+			if (entry.getMember() == null) {
+				mv.visitVarInsn(Opcodes.ALOAD, 1);
+			} else {
+				_visitConstant(mv, name, constants, descriptors,
+					_newReader(entry.getMember(), READER_TYPE), METHOD_HANDLE);
+				mv.visitVarInsn(Opcodes.ALOAD, 1);
+				mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact",
+					READER_TYPE.toMethodDescriptorString(), false);
+			}
+			mv.visitVarInsn(Opcodes.ASTORE, 4);
+			// 启用指标收集时不内联约束, 统一经过 Criterion.test(Object)
+			for (Criterion criterion : entry.getCriteria())
+				if (criterion.getDepth().isEmpty() && !CriterionMetrics.isEnabled())
+					_visitCriterion(mv, name, constants, descriptors, criterion);
+				else
+					_visitTraversal(mv, name, constants, descriptors, criterion);
+		}
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void _visitCriterion(
+			MethodVisitor mv, String name, List<Object> constants, List<String> descriptors, Criterion criterion) {
+		Label passed = new Label();
+		if (!criterion.isNullable()) {
+			mv.visitVarInsn(Opcodes.ALOAD, 4);
+			mv.visitJumpInsn(Opcodes.IFNULL, passed);
+		}
+		if (criterion.getLongPredicate() != null) {
+			_visitConstant(mv, name, constants, descriptors, criterion.getLongConverter(), TO_LONG_FUNCTION);
+			mv.visitVarInsn(Opcodes.ALOAD, 4);
+			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, TO_LONG_FUNCTION, "applyAsLong", "(" + DESC_OBJECT + ")J", true);
+			mv.visitVarInsn(Opcodes.LSTORE, 6);
+			_visitLongPredicate(mv, name, constants, descriptors, criterion, passed);
+			return;
+		}
+		if (criterion.getConverter() == null) {
+			mv.visitVarInsn(Opcodes.ALOAD, 4);
+		} else {
+			_visitConstant(mv, name, constants, descriptors, criterion.getConverter(), CONVERTER);
+			mv.visitVarInsn(Opcodes.ALOAD, 4);
+			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, CONVERTER, "convert", "(" + DESC_OBJECT + ")" + DESC_OBJECT, true);
+		}
+		mv.visitVarInsn(Opcodes.ASTORE, 5);
+		_visitConstant(mv, name, constants, descriptors, criterion.getPredicate(), PREDICATE);
+		mv.visitVarInsn(Opcodes.ALOAD, 5);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, PREDICATE, "test", "(" + DESC_OBJECT + ")Z", true);
+		mv.visitJumpInsn(Opcodes.IFNE, passed);
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		_visitConstant(mv, name, constants, descriptors, criterion, CRITERION);
+		mv.visitVarInsn(Opcodes.ALOAD, 5);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CRITERION, "violate",
+			"(" + DESC_OBJECT + ")" + Type.getDescriptor(CriterionViolation.class), false);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LIST, "add", "(" + DESC_OBJECT + ")Z", true);
+		mv.visitInsn(Opcodes.POP);
+		_visitReturnIfLimitReached(mv);
+		mv.visitLabel(passed);
+	}
+
+	/** 对局部变量 6 中的长整数值执行约束, 通过时跳转至 {@code passed}, 并在末尾放置该标签 */
+	private static void _visitLongPredicate(
+			MethodVisitor mv, String name, List<Object> constants, List<String> descriptors,
+			Criterion criterion, Label passed) {
+		if (criterion.getLongPredicate() instanceof LongRange) {
+			// 区间断言直接比较常量
+			LongRange range = (LongRange) criterion.getLongPredicate();
+			Label failed = new Label();
+			if (range.getMin() != Long.MIN_VALUE) {
+				mv.visitVarInsn(Opcodes.LLOAD, 6);
+				mv.visitLdcInsn(range.getMin());
+				mv.visitInsn(Opcodes.LCMP);
+				mv.visitJumpInsn(Opcodes.IFLT, failed);
+			}
+			if (range.getMax() != Long.MAX_VALUE) {
+				mv.visitVarInsn(Opcodes.LLOAD, 6);
+				mv.visitLdcInsn(range.getMax());
+				mv.visitInsn(Opcodes.LCMP);
+				mv.visitJumpInsn(Opcodes.IFGT, failed);
+			}
+			mv.visitJumpInsn(Opcodes.GOTO, passed);
+			mv.visitLabel(failed);
+		} else {
+			_visitConstant(mv, name, constants, descriptors, criterion.getLongPredicate(), LONG_PREDICATE);
+			mv.visitVarInsn(Opcodes.LLOAD, 6);
+			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LONG_PREDICATE, "test", "(J)Z", true);
+			mv.visitJumpInsn(Opcodes.IFNE, passed);
+		}
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		_visitConstant(mv, name, constants, descriptors, criterion, CRITERION);
+		mv.visitVarInsn(Opcodes.LLOAD, 6);
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Long.class), "valueOf", "(J)Ljava/lang/Long;", false);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CRITERION, "violate",
+			"(" + DESC_OBJECT + ")" + Type.getDescriptor(CriterionViolation.class), false);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LIST, "add", "(" + DESC_OBJECT + ")Z", true);
+		mv.visitInsn(Opcodes.POP);
+		_visitReturnIfLimitReached(mv);
+		mv.visitLabel(passed);
+	}
+
+	/** 通过 {@link Criterion#test(long)} 对局部变量 6 中的长整数值执行约束 */
+	private static void _visitLongTest(
+			MethodVisitor mv, String name, List<Object> constants, List<String> descriptors, Criterion criterion) {
+		Label passed = new Label();
+		_visitConstant(mv, name, constants, descriptors, criterion, CRITERION);
+		mv.visitVarInsn(Opcodes.LLOAD, 6);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CRITERION, "test",
+			"(J)" + Type.getDescriptor(CriterionViolation.class), false);
+		mv.visitVarInsn(Opcodes.ASTORE, 5);
+		mv.visitVarInsn(Opcodes.ALOAD, 5);
+		mv.visitJumpInsn(Opcodes.IFNULL, passed);
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitVarInsn(Opcodes.ALOAD, 5);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LIST, "add", "(" + DESC_OBJECT + ")Z", true);
+		mv.visitInsn(Opcodes.POP);
+		_visitReturnIfLimitReached(mv);
+		mv.visitLabel(passed);
+	}
+
+	private static void _visitTraversal(
+			MethodVisitor mv, String name, List<Object> constants, List<String> descriptors, Criterion criterion) {
+		Label notReached = new Label();
+		_visitConstant(mv, name, constants, descriptors, criterion, CRITERION);
+		mv.visitVarInsn(Opcodes.ALOAD, 4);
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitVarInsn(Opcodes.ILOAD, 8);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CRITERION, "test",
+			"(" + DESC_OBJECT + Type.getDescriptor(List.class) + "I)Z", false);
+		mv.visitJumpInsn(Opcodes.IFNE, notReached);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitLabel(notReached);
+	}
+
+	private static void _visitReturnIfLimitReached(MethodVisitor mv) {
+		Label notReached = new Label();
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LIST, "size", "()I", true);
+		mv.visitVarInsn(Opcodes.ILOAD, 8);
+		mv.visitJumpInsn(Opcodes.IF_ICMPLT, notReached);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitLabel(notReached);
+	}
+
+	private static void _visitConstant(
+			MethodVisitor mv, String name, List<Object> constants, List<String> descriptors,
+			Object constant, String type) {
+		constants.add(constant);
+		descriptors.add("L" + type + ";");
+		mv.visitFieldInsn(Opcodes.GETSTATIC, name, "C" + (constants.size() - 1), "L" + type + ";");
+	}
+
+	private static void _visitConstants(ClassWriter cw, String name, List<String> descriptors) {
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+		mv.visitCode();
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(BeanValidatorCompiler.class),
+			"takeConstants", "()[" + DESC_OBJECT, false);
+		mv.visitVarInsn(Opcodes.ASTORE, 0);
+		for (int i = 0; i < descriptors.size(); i++) {
+			String descriptor = descriptors.get(i);
+			cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, "C" + i, descriptor, null, null)
+				.visitEnd();
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(Opcodes.AALOAD);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, descriptor.substring(1, descriptor.length() - 1));
+			mv.visitFieldInsn(Opcodes.PUTSTATIC, name, "C" + i, descriptor);
+		}
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static MethodHandle _newReader(Member member, MethodType type) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle reader = (member instanceof Field)
+				? lookup.unreflectGetter((Field) member)
+				: lookup.unreflect((Method) member);
+			return reader.asType(type);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class GeneratedClassLoader extends ClassLoader {
+
+		public GeneratedClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		public Class<?> define(String name, byte[] bytecode) throws ClassNotFoundException {
+			defineClass(name, bytecode, 0, bytecode.length);
+			return Class.forName(name, true, this);
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.exception.violation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+import com.github.wautsns.utility.validation.exception.ValidationException;
+
+/**
+ * 方法的参数或返回值未通过校验
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class MethodViolationException extends ValidationException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient Method method;
+	private final transient List<CriterionViolation> violations;
+	private final boolean returnValue;
+
+	public MethodViolationException(Method method, List<CriterionViolation> violations, boolean returnValue) {
+		super("%s 的%s未通过校验: %s", method, returnValue ? "返回值" : "参数", violations);
+		this.method = method;
+		this.violations = violations;
+		this.returnValue = returnValue;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public List<CriterionViolation> getViolations() {
+		return violations;
+	}
+
+	/**
+	 * 是否为返回值未通过校验
+	 * 
+	 * @return 若为返回值则返回 {@code true}, 若为参数则返回 {@code false}
+	 */
+	public boolean isReturnValue() {
+		return returnValue;
+	}
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.core.criterion;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.github.wautsns.utility.validation.annotation.criterion.math.VMax;
+import com.github.wautsns.utility.validation.annotation.criterion.math.VMin;
+import com.github.wautsns.utility.validation.annotation.criterion.math.VPositive;
+import com.github.wautsns.utility.validation.core.validation.BeanValidator;
+import com.github.wautsns.utility.validation.core.validation.VEnv;
+import com.github.wautsns.utility.validation.core.validation.VMode;
+
+/**
+ * 长整数区间约束合并后的违规信息
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class CriterionFusionTest {
+
+	public static class Bean {
+		@VMin(5)
+		@VPositive
+		public long separate;
+		@VMin(1)
+		@VMax(9)
+		public long pair;
+		@VPositive
+		public long expanded;
+	}
+
+	private final VEnv.Engine engine = VEnv.ENGINE;
+
+	@After
+	public void restoreEngine() {
+		VEnv.ENGINE = engine;
+	}
+
+	@Test
+	public void separateAnnotationsReportEveryViolation() {
+		String expected = "[VMin@Bean.separate, VPositive@Bean.separate, VMin@Bean.pair, VPositive@Bean.expanded]";
+		for (VEnv.Engine engine : VEnv.Engine.values()) {
+			VEnv.ENGINE = engine;
+			assertEquals(engine.name(), expected, _violations(new Bean()).toString());
+		}
+	}
+
+	@Test
+	public void onlyTheFailingBoundIsReported() {
+		for (VEnv.Engine engine : VEnv.Engine.values()) {
+			VEnv.ENGINE = engine;
+			Bean bean = new Bean();
+			bean.separate = 5;
+			bean.pair = 10;
+			bean.expanded = 1;
+			assertEquals(engine.name(), "[VMax@Bean.pair]", _violations(bean).toString());
+		}
+	}
+
+	private static List<String> _violations(Bean bean) {
+		return BeanValidator.of(Bean.class).validate(bean, VMode.COLLECT_ALL).stream()
+			.map(violation -> violation.getCause().getSimpleName() + '@' + violation.getPosition())
+			.collect(Collectors.toList());
+	}
+
+}
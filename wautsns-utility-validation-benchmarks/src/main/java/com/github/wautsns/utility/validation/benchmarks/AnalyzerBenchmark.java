@@ -0,0 +1,89 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.wautsns.utility.validation.annotation.criterion.math.VMax;
+import com.github.wautsns.utility.validation.annotation.criterion.math.VPositive;
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.exception.initialization.InitializationException;
+
+/**
+ * 冷启动时 {@link Criterion.Analyzer#analyzeAnnosOn(Field)} 的开销
+ * 
+ * <p> 每次测量都在新的 JVM 中执行, 包含约束元数据的首次初始化. pass 变体分析合法的约束,
+ * fail 变体分析值类型不受支持的约束, 即初始化失败的路径.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class AnalyzerBenchmark {
+
+	static class Target {
+
+		@VPositive
+		@VMax(10)
+		Long supported;
+
+		@VPositive
+		@VMax(10)
+		Object unsupported;
+	}
+
+	private Field supported;
+	private Field unsupported;
+
+	@Setup
+	public void setup() throws NoSuchFieldException {
+		supported = Target.class.getDeclaredField("supported");
+		unsupported = Target.class.getDeclaredField("unsupported");
+	}
+
+	@Benchmark
+	public LinkedList<Criterion> coldPass() {
+		return Criterion.Analyzer.analyzeAnnosOn(supported);
+	}
+
+	@Benchmark
+	public Object coldFail() {
+		try {
+			return Criterion.Analyzer.analyzeAnnosOn(unsupported);
+		} catch (InitializationException e) {
+			return e;
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.wautsns.utility.validation.annotation.criterion.common.VBySpEL;
+import com.github.wautsns.utility.validation.annotation.criterion.common.VNotNull;
+import com.github.wautsns.utility.validation.annotation.criterion.math.VMin;
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+/**
+ * {@link Criterion#test(Object)} 在数值, 非空与 SpEL 约束上的开销
+ * 
+ * <p> fail 变体只生成违规信息, 不渲染 message
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CriterionBenchmark {
+
+	static class Target {
+
+		@VMin(0)
+		long numeric;
+
+		@VNotNull
+		Object notNull;
+
+		@VBySpEL(expr = "length() > 2", message = "{$v} is too short")
+		String spel;
+	}
+
+	private Criterion numeric;
+	private Criterion notNull;
+	private Criterion spel;
+
+	private Long validNumber = 42L;
+	private Long invalidNumber = -42L;
+	private Object validObject = new Object();
+	private String validString = "valid";
+	private String invalidString = "x";
+
+	@Setup
+	public void setup() {
+		numeric = Fixtures.criterionOn(Target.class, "numeric");
+		notNull = Fixtures.criterionOn(Target.class, "notNull");
+		spel = Fixtures.criterionOn(Target.class, "spel");
+	}
+
+	@Benchmark
+	public CriterionViolation numericPass() {
+		return numeric.test(validNumber);
+	}
+
+	@Benchmark
+	public CriterionViolation numericFail() {
+		return numeric.test(invalidNumber);
+	}
+
+	@Benchmark
+	public CriterionViolation notNullPass() {
+		return notNull.test(validObject);
+	}
+
+	@Benchmark
+	public CriterionViolation notNullFail() {
+		return notNull.test(null);
+	}
+
+	@Benchmark
+	public CriterionViolation spelPass() {
+		return spel.test(validString);
+	}
+
+	@Benchmark
+	public CriterionViolation spelFail() {
+		return spel.test(invalidString);
+	}
+
+}
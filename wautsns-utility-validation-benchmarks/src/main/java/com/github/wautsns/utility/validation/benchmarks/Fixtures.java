@@ -0,0 +1,43 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.benchmarks;
+
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+
+/**
+ * 基准测试的公共工具
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+class Fixtures {
+
+	/**
+	 * 获取字段上的第一个约束
+	 * 
+	 * @param type 字段所在类型
+	 * @param field 字段名
+	 * @return 约束
+	 */
+	static Criterion criterionOn(Class<?> type, String field) {
+		try {
+			return Criterion.Analyzer.analyzeAnnosOn(type.getDeclaredField(field)).getFirst();
+		} catch (NoSuchFieldException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.wautsns.utility.validation.annotation.criterion.common.VBySpEL;
+import com.github.wautsns.utility.validation.annotation.criterion.common.VNotNull;
+import com.github.wautsns.utility.validation.annotation.criterion.math.VMax;
+import com.github.wautsns.utility.validation.annotation.criterion.math.VMin;
+import com.github.wautsns.utility.validation.annotation.criterion.math.VPositive;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+import com.github.wautsns.utility.validation.core.validation.BeanValidator;
+import com.github.wautsns.utility.validation.core.validation.VMode;
+
+/**
+ * 嵌套的订单 DTO 图: 订单包含客户, 客户包含地址, 订单包含若干订单行
+ * 
+ * <p> 校验器不会级联校验嵌套的 bean, 因此由 {@link #validate(Order, List)} 逐个节点校验
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+class OrderGraph {
+
+	static class Order {
+
+		@VPositive
+		long id;
+
+		@VNotNull
+		Customer customer;
+
+		@VNotNull
+		@VBySpEL(expr = "!isEmpty()", message = "{$p} is empty")
+		List<Line> lines;
+	}
+
+	static class Customer {
+
+		@VPositive
+		long id;
+
+		@VBySpEL(expr = "length() > 0", message = "{$p} is blank")
+		String name;
+
+		@VNotNull
+		Address address;
+	}
+
+	static class Address {
+
+		@VNotNull
+		String city;
+
+		@VBySpEL(expr = "matches('[0-9]{6}')", message = "{$p} is not a postcode: {$v}")
+		String postcode;
+	}
+
+	static class Line {
+
+		@VNotNull
+		String sku;
+
+		@VMin(1)
+		@VMax(999)
+		int quantity;
+
+		@VPositive
+		long priceCents;
+	}
+
+	private static final BeanValidator ORDER = BeanValidator.of(Order.class);
+	private static final BeanValidator CUSTOMER = BeanValidator.of(Customer.class);
+	private static final BeanValidator ADDRESS = BeanValidator.of(Address.class);
+	/** 订单行只包含数值与非空约束 */
+	static final BeanValidator LINE = BeanValidator.of(Line.class);
+
+	/**
+	 * 校验订单及其所有嵌套节点, 收集所有违规信息
+	 * 
+	 * @param order 订单
+	 * @param violations 违规信息
+	 */
+	static void validate(Order order, List<CriterionViolation> violations) {
+		ORDER.validate(order, violations, VMode.COLLECT_ALL);
+		Customer customer = order.customer;
+		if (customer != null) {
+			CUSTOMER.validate(customer, violations, VMode.COLLECT_ALL);
+			if (customer.address != null)
+				ADDRESS.validate(customer.address, violations, VMode.COLLECT_ALL);
+		}
+		if (order.lines != null)
+			for (int i = 0, size = order.lines.size(); i < size; i++) {
+				Line line = order.lines.get(i);
+				if (line != null) LINE.validate(line, violations, VMode.COLLECT_ALL);
+			}
+	}
+
+	/**
+	 * 创建订单
+	 * 
+	 * @param seed 种子, 决定订单行的数量与内容
+	 * @param valid 是否创建合法的订单, 否则每个节点都包含违规
+	 * @return 订单
+	 */
+	static Order newOrder(int seed, boolean valid) {
+		Address address = new Address();
+		address.city = valid ? "Hangzhou" : null;
+		address.postcode = valid ? "310000" : "31000x";
+		Customer customer = new Customer();
+		customer.id = valid ? seed + 1 : -seed;
+		customer.name = valid ? "customer-" + seed : "";
+		customer.address = address;
+		Order order = new Order();
+		order.id = valid ? seed + 1 : 0;
+		order.customer = customer;
+		order.lines = new ArrayList<>();
+		for (int i = 0, n = 4 + seed % 8; i < n; i++) {
+			Line line = new Line();
+			line.sku = valid ? "sku-" + i : null;
+			line.quantity = valid ? 1 + i : 1000;
+			line.priceCents = valid ? 100 * (i + 1) : 0;
+			order.lines.add(line);
+		}
+		return order;
+	}
+
+}
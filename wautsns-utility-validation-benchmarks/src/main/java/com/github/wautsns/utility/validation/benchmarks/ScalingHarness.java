@@ -0,0 +1,199 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.github.wautsns.utility.validation.benchmarks.OrderGraph.Order;
+import com.github.wautsns.utility.validation.core.validation.BeanValidator;
+import com.github.wautsns.utility.validation.core.validation.VMode;
+import com.github.wautsns.utility.validation.core.validation.ViolationCollector;
+
+/**
+ * 多线程伸缩性与内存分配的回归测试
+ * 
+ * <p> 以 1 到 N 个线程并发校验嵌套的 DTO 图, 输出各线程数下的吞吐量, 以及每次校验分配的字节数
+ * (取自 {@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}).
+ * 全部合法的路径上每次校验分配的字节数超过 {@value #BASELINE} 中记录的基线时, 以状态码 1 退出.
+ * 此外, 通过 {@link BeanValidator#validate(Object, VMode)} 校验合法的订单行时不应分配任何对象.
+ * 
+ * <p> 参数: {@code [最大线程数, 默认为处理器数] [每轮测量的毫秒数, 默认为 2000]}
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class ScalingHarness {
+
+	static final String BASELINE = "/allocation-baseline.properties";
+
+	private static final int GRAPHS = 1024;
+
+	private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+		(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	public static void main(String[] args) throws Exception {
+		int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		long millis = (args.length > 1) ? Long.parseLong(args[1]) : 2000L;
+		if (!THREAD_MX_BEAN.isThreadAllocatedMemorySupported())
+			throw new IllegalStateException("当前 JVM 不支持统计线程分配的内存");
+		THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+		Order[] valid = _newOrders(true);
+		Order[] invalid = _newOrders(false);
+		// 预热, 使校验计划完成初始化并触发 JIT 编译
+		_run(valid, 1, millis);
+		_run(invalid, 1, millis);
+		System.out.printf("%-8s %8s %16s %16s %14s%n", "path", "threads", "ops/s", "ops/s/thread", "bytes/op");
+		double validBytesPerOp = 0;
+		for (int threads = 1; threads <= maxThreads; threads++) {
+			Result result = _run(valid, threads, millis);
+			validBytesPerOp = Math.max(validBytesPerOp, result.bytesPerOp());
+			_print("valid", threads, result);
+			_print("invalid", threads, _run(invalid, threads, millis));
+		}
+		Properties baseline = _loadBaseline();
+		double limit = Double.parseDouble(baseline.getProperty("valid.bytes-per-op"))
+			* (1 + Double.parseDouble(baseline.getProperty("tolerance", "0")));
+		System.out.printf("valid path: %.1f bytes/op, limit %.1f bytes/op%n", validBytesPerOp, limit);
+		double linesBytesPerOp = _measureLines(valid);
+		System.out.printf("valid lines: %.2f bytes/op, expected 0%n", linesBytesPerOp);
+		if (validBytesPerOp > limit) {
+			System.err.println("合法路径上的内存分配超过了基线");
+			System.exit(1);
+		}
+		if (linesBytesPerOp != 0) {
+			System.err.println("校验合法的订单行时分配了对象");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * 在当前线程上测量校验合法的订单行时每次分配的字节数
+	 * 
+	 * <p> 取各轮中的最小值, 排除 JIT 编译等偶发的分配
+	 */
+	private static double _measureLines(Order[] orders) {
+		long threadId = Thread.currentThread().getId();
+		double min = Double.MAX_VALUE;
+		for (int round = 0; round < 20; round++) {
+			long ops = 0;
+			long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+			for (Order order : orders)
+				for (int i = 0, size = order.lines.size(); i < size; i++, ops++)
+					if (OrderGraph.LINE.validate(order.lines.get(i), VMode.COLLECT_ALL) != ViolationCollector.EMPTY)
+						throw new IllegalStateException("订单行应当合法");
+			min = Math.min(min, (double) (THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - before) / ops);
+		}
+		return min;
+	}
+
+	private static Order[] _newOrders(boolean valid) {
+		Order[] orders = new Order[GRAPHS];
+		for (int i = 0; i < GRAPHS; i++)
+			orders[i] = OrderGraph.newOrder(i, valid);
+		return orders;
+	}
+
+	private static Result _run(Order[] orders, int threads, long millis) throws InterruptedException {
+		Worker[] workers = new Worker[threads];
+		CountDownLatch start = new CountDownLatch(1);
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Worker(orders, i, start);
+			workers[i].start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		TimeUnit.MILLISECONDS.sleep(millis);
+		for (Worker worker : workers)
+			worker.running = false;
+		Result result = new Result();
+		for (Worker worker : workers) {
+			worker.join();
+			result.ops += worker.ops;
+			result.bytes += worker.bytes;
+		}
+		result.nanos = System.nanoTime() - begin;
+		return result;
+	}
+
+	private static void _print(String path, int threads, Result result) {
+		double opsPerSecond = result.ops * 1e9 / result.nanos;
+		System.out.printf("%-8s %8d %16.0f %16.0f %14.1f%n",
+			path, threads, opsPerSecond, opsPerSecond / threads, result.bytesPerOp());
+	}
+
+	private static Properties _loadBaseline() throws IOException {
+		Properties baseline = new Properties();
+		try (InputStream in = ScalingHarness.class.getResourceAsStream(BASELINE)) {
+			if (in == null) throw new IllegalStateException("缺少基线文件 " + BASELINE);
+			baseline.load(in);
+		}
+		return baseline;
+	}
+
+	private static class Worker extends Thread {
+
+		private final Order[] orders;
+		private final CountDownLatch start;
+		private volatile boolean running = true;
+		private long ops;
+		private long bytes;
+
+		Worker(Order[] orders, int index, CountDownLatch start) {
+			super("scaling-harness-" + index);
+			this.orders = orders;
+			this.start = start;
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			ViolationCollector violations = new ViolationCollector();
+			int index = (int) getId() % orders.length;
+			try {
+				start.await();
+			} catch (InterruptedException e) {
+				return;
+			}
+			long before = THREAD_MX_BEAN.getThreadAllocatedBytes(getId());
+			long count = 0;
+			while (running) {
+				OrderGraph.validate(orders[index], violations);
+				violations.reset();
+				if (++index == orders.length) index = 0;
+				count++;
+			}
+			bytes = THREAD_MX_BEAN.getThreadAllocatedBytes(getId()) - before;
+			ops = count;
+		}
+	}
+
+	private static class Result {
+
+		private long ops;
+		private long bytes;
+		private long nanos;
+
+		double bytesPerOp() {
+			return (ops == 0) ? 0 : (double) bytes / ops;
+		}
+	}
+
+}
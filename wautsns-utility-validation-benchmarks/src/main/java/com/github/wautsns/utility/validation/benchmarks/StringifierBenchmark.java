@@ -0,0 +1,102 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.wautsns.utility.validation.annotation.criterion.common.VBySpEL;
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+import com.github.wautsns.utility.validation.core.criterion.handlers.Stringifier;
+
+/**
+ * {@link Stringifier#simple(Object)} 在大数组上的开销
+ * 
+ * <p> pass 变体的约束通过, 不会字符串化数组; fail 变体渲染包含 {@code {$v}} 的 message
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StringifierBenchmark {
+
+	static class Target {
+
+		@VBySpEL(expr = "length > 0", message = "{$v} is empty")
+		int[] nonEmpty;
+
+		@VBySpEL(expr = "length == 0", message = "{$v} is not empty")
+		int[] empty;
+	}
+
+	@Param({ "1000", "100000" })
+	private int size;
+
+	private int[] ints;
+	private String[] strings;
+	private Criterion nonEmpty;
+	private Criterion empty;
+
+	@Setup
+	public void setup() {
+		ints = new int[size];
+		strings = new String[size];
+		for (int i = 0; i < size; i++) {
+			ints[i] = i;
+			strings[i] = Integer.toString(i);
+		}
+		nonEmpty = Fixtures.criterionOn(Target.class, "nonEmpty");
+		empty = Fixtures.criterionOn(Target.class, "empty");
+	}
+
+	@Benchmark
+	public String simpleInts() {
+		return Stringifier.simple(ints);
+	}
+
+	@Benchmark
+	public String simpleStrings() {
+		return Stringifier.simple(strings);
+	}
+
+	@Benchmark
+	public CriterionViolation arrayPass() {
+		return nonEmpty.test(ints);
+	}
+
+	@Benchmark
+	public String arrayFail() {
+		return empty.test(ints).getMessage();
+	}
+
+}
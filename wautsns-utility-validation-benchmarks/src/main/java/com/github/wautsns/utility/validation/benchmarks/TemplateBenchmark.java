@@ -0,0 +1,104 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.benchmarks;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticMessageSource;
+
+import com.github.wautsns.utility.validation.annotation.criterion.math.VMin;
+import com.github.wautsns.utility.validation.core.criterion.Criterion;
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+import com.github.wautsns.utility.validation.core.validation.VEnv;
+
+/**
+ * {@code Template.generate} 与 message 渲染的开销, 分别使用 {@code SimpleTemplate} 与 {@code I18nTemplate}
+ * 
+ * <p> pass 变体不会生成违规信息, fail 变体生成违规信息并渲染 message
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TemplateBenchmark {
+
+	static class Target {
+
+		@VMin(value = 0, message = "{$p} must be >= {#value}, got {$v}")
+		long simple;
+
+		@VMin(0)
+		long i18n;
+	}
+
+	private Criterion simple;
+	private Criterion i18n;
+
+	private Long validNumber = 42L;
+	private Long invalidNumber = -42L;
+
+	@Setup
+	public void setup() {
+		StaticMessageSource messageSource = new StaticMessageSource();
+		messageSource.addMessage("v.min", Locale.getDefault(), "{$p} must be >= {#value}, got {$v}");
+		VEnv.setMessageSource(messageSource);
+		simple = Fixtures.criterionOn(Target.class, "simple");
+		i18n = Fixtures.criterionOn(Target.class, "i18n");
+	}
+
+	@TearDown
+	public void tearDown() {
+		VEnv.setMessageSource(null);
+	}
+
+	@Benchmark
+	public CriterionViolation simplePass() {
+		return simple.test(validNumber);
+	}
+
+	@Benchmark
+	public String simpleFail() {
+		return simple.test(invalidNumber).getMessage();
+	}
+
+	@Benchmark
+	public CriterionViolation i18nPass() {
+		return i18n.test(validNumber);
+	}
+
+	@Benchmark
+	public String i18nFail() {
+		return i18n.test(invalidNumber).getMessage();
+	}
+
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.processor;
+
+import java.util.List;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.lang.model.util.Types;
+
+/**
+ * 将常量转化为生成代码中的 Java 表达式
+ * 
+ * <p> 表达式中引用的类型需能从生成代码所在的包访问
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+class Literals {
+
+	private final Elements elements;
+	private final Types types;
+	private final PackageElement pkg;
+
+	public Literals(Elements elements, Types types, PackageElement pkg) {
+		this.elements = elements;
+		this.types = types;
+		this.pkg = pkg;
+	}
+
+	/**
+	 * 获取类型的类字面量
+	 * 
+	 * @param type 类型, 会被擦除
+	 * @return 如 {@code java.lang.String.class}
+	 */
+	public String classOf(TypeMirror type) {
+		return typeName(type) + ".class";
+	}
+
+	/**
+	 * 获取擦除后的类型名
+	 * 
+	 * @param type 类型
+	 * @return 类型名
+	 */
+	public String typeName(TypeMirror type) {
+		type = types.erasure(type);
+		if (type.getKind().isPrimitive())
+			return type.toString();
+		if (type.getKind() == TypeKind.ARRAY)
+			return typeName(((ArrayType) type).getComponentType()) + "[]";
+		if (type.getKind() != TypeKind.DECLARED)
+			throw new ProcessingException("不支持的类型: %s", type);
+		TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+		_checkAccessible(element);
+		return element.getQualifiedName().toString();
+	}
+
+	/**
+	 * 获取字符串的 Java 表达式
+	 * 
+	 * @param value 字符串
+	 * @return 已转义的字符串字面量
+	 */
+	public String valueOf(String value) {
+		return elements.getConstantExpression(value);
+	}
+
+	/**
+	 * 获取注解属性值的 Java 表达式
+	 * 
+	 * @param value 注解属性值
+	 * @param type 属性类型
+	 * @return Java 表达式
+	 */
+	public String valueOf(AnnotationValue value, TypeMirror type) {
+		return value.accept(new SimpleAnnotationValueVisitor8<String, TypeMirror>() {
+
+			@Override
+			public String visitBoolean(boolean b, TypeMirror t) {
+				return String.valueOf(b);
+			}
+
+			@Override
+			public String visitByte(byte b, TypeMirror t) {
+				return "(byte) " + b;
+			}
+
+			@Override
+			public String visitChar(char c, TypeMirror t) {
+				return elements.getConstantExpression(c);
+			}
+
+			@Override
+			public String visitDouble(double d, TypeMirror t) {
+				return elements.getConstantExpression(d);
+			}
+
+			@Override
+			public String visitFloat(float f, TypeMirror t) {
+				return elements.getConstantExpression(f);
+			}
+
+			@Override
+			public String visitInt(int i, TypeMirror t) {
+				return String.valueOf(i);
+			}
+
+			@Override
+			public String visitLong(long i, TypeMirror t) {
+				return i + "L";
+			}
+
+			@Override
+			public String visitShort(short s, TypeMirror t) {
+				return "(short) " + s;
+			}
+
+			@Override
+			public String visitString(String s, TypeMirror t) {
+				return elements.getConstantExpression(s);
+			}
+
+			@Override
+			public String visitType(TypeMirror t, TypeMirror p) {
+				return classOf(t);
+			}
+
+			@Override
+			public String visitEnumConstant(VariableElement c, TypeMirror t) {
+				return typeName(c.asType()) + '.' + c.getSimpleName();
+			}
+
+			@Override
+			public String visitAnnotation(AnnotationMirror a, TypeMirror t) {
+				throw new ProcessingException("不支持注解类型的属性值: %s", a);
+			}
+
+			@Override
+			public String visitArray(List<? extends AnnotationValue> vals, TypeMirror t) {
+				TypeMirror componentType = ((ArrayType) t).getComponentType();
+				StringBuilder bder = new StringBuilder();
+				bder.append("new ").append(typeName(componentType)).append("[] {");
+				for (int i = 0; i < vals.size(); i++)
+					bder.append((i == 0) ? " " : ", ").append(valueOf(vals.get(i), componentType));
+				return bder.append(vals.isEmpty() ? "}" : " }").toString();
+			}
+		}, type);
+	}
+
+	private void _checkAccessible(TypeElement type) {
+		for (Element curr = type; curr instanceof TypeElement; curr = curr.getEnclosingElement()) {
+			if (curr.getModifiers().contains(Modifier.PRIVATE)
+					|| !curr.getModifiers().contains(Modifier.PUBLIC) && !elements.getPackageOf(curr).equals(pkg))
+				throw new ProcessingException("类型[%s]无法在包[%s]中访问", type, pkg);
+		}
+	}
+
+}
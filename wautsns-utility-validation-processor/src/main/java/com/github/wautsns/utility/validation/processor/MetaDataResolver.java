@@ -0,0 +1,376 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+
+/**
+ * 编译期的约束元数据解析器
+ * 
+ * <p> 与运行时的 {@code Criterion.MetaData} 的解析规则一致, 但基于注解镜像.
+ * SpEL 属性值不在编译期求值, 而是生成在运行时求值的表达式.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+class MetaDataResolver {
+
+	static final String ACRITERION = "com.github.wautsns.utility.validation.annotation.helper.ACriterion";
+	static final String ASPECIFY = "com.github.wautsns.utility.validation.annotation.helper.ASpecify";
+	static final String ASPECIFY_LIST = "com.github.wautsns.utility.validation.annotation.helper.ASpecifyList";
+	static final String MARKER = "com.github.wautsns.utility.validation.core.criterion.handlers.ValueHandlers4Marker";
+
+	private final Elements elements;
+	private final Map<TypeElement, MetaData> instances = new HashMap<>();
+
+	public MetaDataResolver(Elements elements) {
+		this.elements = elements;
+	}
+
+	static class MetaData {
+
+		TypeElement type;
+		boolean marker;
+		MetaAttrs attrs;
+		LinkedList<MetaAttrs> path;
+	}
+
+	static class MetaAttrs extends LinkedHashMap<String, MetaAttr> {
+
+		private static final long serialVersionUID = 1L;
+
+		TypeElement owner;
+
+		public MetaAttrs(TypeElement owner) {
+			this.owner = owner;
+		}
+	}
+
+	static class MetaAttr {
+
+		/** 最原始的元属性拥有者 */
+		TypeElement owner;
+		/** 为 {@code null} 时表示常量 */
+		ExecutableElement annoAttr;
+		AttrValue value;
+
+		public MetaAttr(TypeElement owner, ExecutableElement annoAttr, AttrValue value) {
+			this.owner = owner;
+			this.annoAttr = annoAttr;
+			this.value = value;
+		}
+
+		public boolean isConst() {
+			return annoAttr == null;
+		}
+
+		/**
+		 * 获取属性值
+		 * 
+		 * @param anno 根约束注解
+		 * @return 属性值
+		 */
+		public AttrValue getValue(AnnotationMirror anno, Elements elements) {
+			if (isConst()) return value;
+			if (!annoAttr.getEnclosingElement().equals(anno.getAnnotationType().asElement()))
+				throw new ProcessingException("属性[%s]不属于约束注解 %s", annoAttr, anno);
+			AnnotationValue av = elements.getElementValuesWithDefaults(anno).get(annoAttr);
+			if (av == null)
+				throw new ProcessingException("缺少约束属性[%s]的值", annoAttr);
+			return AttrValue.of(av, annoAttr.getReturnType());
+		}
+	}
+
+	/** 常量属性值, 在生成代码中表示为 Java 表达式 */
+	abstract static class AttrValue {
+
+		abstract String toSource(Literals literals);
+
+		static AttrValue of(AnnotationValue value, TypeMirror type) {
+			return new AttrValue() {
+				@Override
+				String toSource(Literals literals) {
+					return literals.valueOf(value, type);
+				}
+			};
+		}
+
+		static AttrValue ofEmptyString() {
+			return new AttrValue() {
+				@Override
+				String toSource(Literals literals) {
+					return "\"\"";
+				}
+			};
+		}
+
+		/**
+		 * 在运行时求值的 SpEL 表达式
+		 * 
+		 * @param expr 表达式
+		 * @param type 值的类型, 为 {@code null} 时不进行转换
+		 * @param typeName 值的类型名, 当 {@code type} 为 {@code null} 时使用
+		 * @return 属性值
+		 */
+		static AttrValue ofSpEL(String expr, TypeMirror type, String typeName) {
+			return new AttrValue() {
+				@Override
+				String toSource(Literals literals) {
+					String typeSource = (type != null) ? literals.classOf(type)
+						: (typeName != null) ? typeName + ".class" : "(Class<?>) null";
+					return "com.github.wautsns.utility.validation.core.validation.VSpEL.parse("
+						+ literals.valueOf(expr) + ", org.springframework.expression.spel.SpelCompilerMode.OFF)"
+						+ ".getValue(" + typeSource + ")";
+				}
+			};
+		}
+	}
+
+	/**
+	 * 获取约束注解的元数据
+	 * 
+	 * @param type 注解类型
+	 * @return 元数据, 若不是约束注解则返回 {@code null}
+	 */
+	public MetaData get(TypeElement type) {
+		return _get(type, new LinkedList<>());
+	}
+
+	private MetaData _get(TypeElement type, List<TypeElement> chain) {
+		if (type.getKind() != ElementKind.ANNOTATION_TYPE) return null;
+		MetaData instance = instances.get(type);
+		if (instance != null) return instance;
+		AnnotationMirror config = _findAnnotation(type, ACRITERION);
+		if (config == null) return null;
+		_checkCircularChain(type, chain);
+		instance = _newSimpleMetaData(type, config);
+		_initDirectPath(instance, chain);
+		_replaceToCompletePath(instance, chain);
+		instances.put(type, instance);
+		return instance;
+	}
+
+	private static void _checkCircularChain(TypeElement type, List<TypeElement> chain) {
+		if (chain.contains(type))
+			throw new ProcessingException("出现循环初始化链: %s -> %s", chain, type);
+		chain.add(type);
+	}
+
+	private MetaData _newSimpleMetaData(TypeElement type, AnnotationMirror config) {
+		MetaData md = new MetaData();
+		md.type = type;
+		TypeMirror valueHandlers = (TypeMirror) _valueOf(config, "valueHandlers").getValue();
+		md.marker = ((TypeElement) ((DeclaredType) valueHandlers).asElement())
+			.getQualifiedName().contentEquals(MARKER);
+		md.attrs = new MetaAttrs(type);
+		for (ExecutableElement annoAttr : ElementFilter.methodsIn(type.getEnclosedElements()))
+			md.attrs.put(annoAttr.getSimpleName().toString(), new MetaAttr(type, annoAttr, null));
+		for (Specify specify : _specifiesOf(type))
+			if (specify.type.equals(type))
+				_specifySelfAttrs(md, specify);
+		if (Arrays.asList("message", "groups", "depth", "order").stream().allMatch(md.attrs::containsKey))
+			return md;
+		throw new ProcessingException("约束[%s]缺少对必要属性[message,groups,depth,order]的定义", type);
+	}
+
+	private static void _specifySelfAttrs(MetaData md, Specify specify) {
+		for (String attr : specify.attrs) {
+			String[] nmv = _toNMV(attr);
+			if (!"=".equals(nmv[1]))
+				throw new ProcessingException("只能通过 SpEL 表达式的方式指定自身属性,即: ${name}=${SpEL}");
+			String typeName = ("message".equals(nmv[0]) || "depth".equals(nmv[0])) ? "String"
+				: "groups".equals(nmv[0]) ? "Class[]" : null;
+			MetaAttr old = md.attrs.put(nmv[0], new MetaAttr(md.type, null, AttrValue.ofSpEL(nmv[2], null, typeName)));
+			if (old != null)
+				throw new ProcessingException("属性[%s]被多次定义", nmv[0]);
+		}
+	}
+
+	private void _initDirectPath(MetaData md, List<TypeElement> chain) {
+		List<Specify> specifies = new ArrayList<>();
+		for (Specify specify : _specifiesOf(md.type))
+			if (!specify.type.equals(md.type))
+				specifies.add(specify);
+		specifies.sort(Comparator.comparingInt(specify -> specify.order));
+		md.path = new LinkedList<>();
+		if (!md.marker) {
+			for (Specify specify : specifies)
+				if (specify.order <= 0)
+					_addSpecifiedNonRootAttrs(md, specify, chain);
+			md.path.add(md.attrs);
+			for (Specify specify : specifies)
+				if (specify.order > 0)
+					_addSpecifiedNonRootAttrs(md, specify, chain);
+		} else if (specifies.isEmpty()) {
+			throw new ProcessingException("标记约束需要至少关联指定其他一个约束才有意义");
+		} else {
+			for (Specify specify : specifies)
+				_addSpecifiedNonRootAttrs(md, specify, chain);
+		}
+	}
+
+	private void _addSpecifiedNonRootAttrs(MetaData md, Specify specify, List<TypeElement> chain) {
+		MetaData ref = _get(specify.type, chain);
+		if (ref == null)
+			throw new ProcessingException("注解[%s]并不是一个约束注解", specify.type);
+		MetaAttrs attrs = new MetaAttrs(specify.type);
+		for (String expr : specify.attrs) {
+			String[] nmv = _toNMV(expr);
+			MetaAttr refAttr = ref.attrs.get(nmv[0]);
+			if (refAttr == null)
+				throw new ProcessingException("指定了约束[%s]不存在的属性[%s]", specify.type, nmv[0]);
+			if (">".equals(nmv[1])) {
+				MetaAttr maRef = md.attrs.get(nmv[2]);
+				if (maRef == null)
+					throw new ProcessingException("约束属性[@%s.%s]引用了不存在的属性[%s]", specify.type, nmv[0], nmv[2]);
+				attrs.put(nmv[0], "depth".equals(nmv[0])
+					? new MetaAttr(maRef.owner, null, AttrValue.ofEmptyString())
+					: maRef);
+			} else if ("".equals(nmv[1])) {
+				attrs.put(nmv[0], _useDefaultValue(md.type, refAttr));
+			} else if ("=".equals(nmv[1])) {
+				if (refAttr.isConst())
+					throw new ProcessingException("约束属性[@%s.%s]无法被指定", specify.type, nmv[0]);
+				attrs.put(nmv[0], new MetaAttr(md.type, null,
+					AttrValue.ofSpEL(nmv[2], refAttr.annoAttr.getReturnType(), null)));
+			}
+		}
+		for (String name : new String[] { "message", "groups" })
+			attrs.putIfAbsent(name, md.attrs.get(name));
+		attrs.putIfAbsent("depth", new MetaAttr(md.type, null, AttrValue.ofEmptyString()));
+		if (attrs.put("order", md.attrs.get("order")) != null)
+			throw new ProcessingException("无法指定 @%s 的 order 属性", specify.type);
+		for (String name : ref.attrs.keySet())
+			if (!attrs.containsKey(name))
+				throw new ProcessingException("缺少约束属性[@%s.%s]的指定", specify.type, name);
+		md.path.add(attrs);
+	}
+
+	private static MetaAttr _useDefaultValue(TypeElement root, MetaAttr target) {
+		if (target.isConst()) return target;
+		AnnotationValue value = target.annoAttr.getDefaultValue();
+		if (value == null)
+			throw new ProcessingException("指定了约束属性[%s]使用默认值,但实际上该属性并没有默认值", target.annoAttr);
+		return new MetaAttr(root, null, AttrValue.of(value, target.annoAttr.getReturnType()));
+	}
+
+	private void _replaceToCompletePath(MetaData md, List<TypeElement> chain) {
+		LinkedList<MetaAttrs> completePath = new LinkedList<>();
+		for (MetaAttrs ref : md.path)
+			if (ref.owner.equals(md.type))
+				completePath.add(ref);
+			else
+				for (MetaAttrs pathNode : _get(ref.owner, chain).path)
+					if (pathNode.owner.equals(ref.owner))
+						completePath.add(ref);
+					else {
+						MetaAttrs temp = new MetaAttrs(pathNode.owner);
+						for (Entry<String, MetaAttr> entry : pathNode.entrySet()) {
+							MetaAttr attr = entry.getValue();
+							temp.put(entry.getKey(),
+								attr.isConst() ? attr : ref.get(attr.annoAttr.getSimpleName().toString()));
+						}
+						completePath.add(temp);
+					}
+		md.path = completePath;
+	}
+
+	private static String[] _toNMV(String attr) {
+		Pattern pattern = Pattern.compile("^([^=>]+)([=>]?)(.*)$");
+		Matcher matcher = pattern.matcher(attr);
+		if (!matcher.find())
+			throw new ProcessingException("无效的属性表达式: %s", attr);
+		String[] nmv = new String[3]; // name mode value
+		for (int i = 0; i < nmv.length; i++)
+			nmv[i] = matcher.group(i + 1).trim();
+		return nmv;
+	}
+
+	/** {@code @ASpecify} 的镜像 */
+	private static class Specify {
+
+		TypeElement type;
+		int order;
+		List<String> attrs = new ArrayList<>();
+	}
+
+	private List<Specify> _specifiesOf(TypeElement type) {
+		List<AnnotationMirror> mirrors = new ArrayList<>();
+		for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+			String name = nameOf(mirror);
+			if (ASPECIFY.equals(name))
+				mirrors.add(mirror);
+			else if (ASPECIFY_LIST.equals(name))
+				for (AnnotationValue av : _values(_valueOf(mirror, "value")))
+					mirrors.add((AnnotationMirror) av.getValue());
+		}
+		List<Specify> specifies = new ArrayList<>(mirrors.size());
+		for (AnnotationMirror mirror : mirrors) {
+			Specify specify = new Specify();
+			specify.type = (TypeElement) ((DeclaredType) _valueOf(mirror, "type").getValue()).asElement();
+			specify.order = (Integer) _valueOf(mirror, "order").getValue();
+			for (AnnotationValue av : _values(_valueOf(mirror, "attrs")))
+				specify.attrs.add((String) av.getValue());
+			specifies.add(specify);
+		}
+		return specifies;
+	}
+
+	private AnnotationValue _valueOf(AnnotationMirror mirror, String name) {
+		for (Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+				: elements.getElementValuesWithDefaults(mirror).entrySet())
+			if (entry.getKey().getSimpleName().contentEquals(name))
+				return entry.getValue();
+		throw new ProcessingException("注解 %s 缺少属性 %s", mirror, name);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<? extends AnnotationValue> _values(AnnotationValue array) {
+		return (List<? extends AnnotationValue>) array.getValue();
+	}
+
+	static String nameOf(AnnotationMirror mirror) {
+		return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+	}
+
+	private static AnnotationMirror _findAnnotation(TypeElement type, String name) {
+		for (AnnotationMirror mirror : type.getAnnotationMirrors())
+			if (nameOf(mirror).equals(name))
+				return mirror;
+		return null;
+	}
+
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.processor;
+
+/**
+ * 无法在编译期生成校验计划, 对应类型将在运行时通过反射分析
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+class ProcessingException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ProcessingException(String message, Object... args) {
+		super(String.format(message, args));
+	}
+
+}
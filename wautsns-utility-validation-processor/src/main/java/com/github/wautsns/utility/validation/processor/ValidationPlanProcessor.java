@@ -0,0 +1,331 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import com.github.wautsns.utility.validation.processor.MetaDataResolver.MetaAttr;
+import com.github.wautsns.utility.validation.processor.MetaDataResolver.MetaAttrs;
+import com.github.wautsns.utility.validation.processor.MetaDataResolver.MetaData;
+
+/**
+ * 在编译期为 bean 类型生成校验计划
+ * 
+ * <p> 为每个在类, 字段或 getter 上(含父类)存在约束注解的类型生成 {@code <Type>$$ValidationPlan},
+ * 该类与 bean 类型位于同一包中, 运行时从 bean 类型的类加载器中按类名查找, 不再通过反射分析约束注解.
+ * 无法生成的类型会给出提示, 并在运行时退回反射分析.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+@SupportedAnnotationTypes("*")
+public class ValidationPlanProcessor extends AbstractProcessor {
+
+	private static final String SUFFIX = "$$ValidationPlan";
+
+	private MetaDataResolver resolver;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (resolver == null)
+			resolver = new MetaDataResolver(processingEnv.getElementUtils());
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements()))
+			_process(type);
+		return false;
+	}
+
+	private void _process(TypeElement type) {
+		for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements()))
+			_process(nested);
+		if (type.getKind() != ElementKind.CLASS
+				|| type.getModifiers().contains(Modifier.PRIVATE)
+				|| type.getNestingKind() == NestingKind.LOCAL
+				|| type.getNestingKind() == NestingKind.ANONYMOUS
+				|| type.getSimpleName().toString().endsWith(SUFFIX))
+			return;
+		try {
+			List<Entry> entries = _analyze(type);
+			if (entries.isEmpty()) return;
+			_writeSource(type, entries);
+		} catch (ProcessingException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+				"无法生成校验计划, 运行时将通过反射分析: " + e.getMessage(), type);
+		}
+	}
+
+	/** 值的来源 */
+	private static class Entry {
+
+		ElementKind kind;
+		/** 成员所在类型相对于 bean 类型的父类层级 */
+		int level;
+		String name;
+		String position;
+		List<List<Node>> chains = new ArrayList<>();
+	}
+
+	/** 约束链中的节点, 与运行时的 {@code Criterion.Definition} 对应 */
+	private static class Node {
+
+		TypeElement type;
+		boolean sharesRootMessage;
+		MetaAttrs attrs;
+		/** 根约束注解 */
+		AnnotationMirror annotation;
+	}
+
+	private List<Entry> _analyze(TypeElement type) {
+		List<Entry> entries = new ArrayList<>();
+		_addEntry(entries, ElementKind.CLASS, 0, null, type.getSimpleName().toString(), type.getAnnotationMirrors());
+		int level = 0;
+		for (TypeElement curr = type; curr != null; curr = _superclassOf(curr), level++) {
+			String owner = curr.getSimpleName().toString();
+			for (VariableElement field : ElementFilter.fieldsIn(curr.getEnclosedElements()))
+				if (!field.getModifiers().contains(Modifier.STATIC))
+					_addEntry(entries, ElementKind.FIELD, level, field.getSimpleName().toString(),
+						owner + '.' + field.getSimpleName(), field.getAnnotationMirrors());
+			for (ExecutableElement method : ElementFilter.methodsIn(curr.getEnclosedElements())) {
+				if (method.getModifiers().contains(Modifier.STATIC)
+						|| method.getReturnType().getKind() == TypeKind.VOID
+						|| !method.getParameters().isEmpty())
+					continue;
+				String name = method.getSimpleName().toString();
+				_addEntry(entries, ElementKind.METHOD, level, name,
+					owner + '.' + _propertyNameOf(name), method.getAnnotationMirrors());
+			}
+		}
+		return entries;
+	}
+
+	private TypeElement _superclassOf(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) return null;
+		TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(superclass);
+		return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+	}
+
+	/** 与 {@code Criterion.Analyzer.analyzeAnnosOn(Method)} 的规则一致 */
+	private static String _propertyNameOf(String name) {
+		if (name.matches("get[A-Z]"))
+			name = name.substring(3);
+		else if (name.matches("is[A-Z]*"))
+			name = name.substring(2);
+		if (name.isEmpty())
+			throw new ProcessingException("无法从方法名推断属性名");
+		char[] chars = name.toCharArray();
+		chars[0] = Character.toLowerCase(chars[0]);
+		return new String(chars);
+	}
+
+	private void _addEntry(
+			List<Entry> entries, ElementKind kind, int level, String name, String position,
+			List<? extends AnnotationMirror> annotations) {
+		Entry entry = new Entry();
+		entry.kind = kind;
+		entry.level = level;
+		entry.name = name;
+		entry.position = position;
+		_addChains(entry.chains, annotations);
+		if (!entry.chains.isEmpty()) entries.add(entry);
+	}
+
+	private void _addChains(List<List<Node>> chains, List<? extends AnnotationMirror> annotations) {
+		for (AnnotationMirror annotation : annotations) {
+			TypeElement annoType = (TypeElement) annotation.getAnnotationType().asElement();
+			MetaData md = resolver.get(annoType);
+			if (md != null)
+				chains.add(_chainOf(md, annotation));
+			else if (_isRepeatableContainer(annoType))
+				for (AnnotationValue av : _repeatedValuesOf(annotation))
+					_addChains(chains, Collections.singletonList((AnnotationMirror) av.getValue()));
+		}
+	}
+
+	private static List<Node> _chainOf(MetaData md, AnnotationMirror annotation) {
+		List<Node> chain = new ArrayList<>(md.path.size() + 1);
+		Node root = new Node();
+		root.type = md.type;
+		root.attrs = md.attrs;
+		root.annotation = annotation;
+		chain.add(root);
+		for (MetaAttrs attrs : md.path) {
+			if (attrs.owner.equals(md.type)) {
+				chain.add(root);
+				continue;
+			}
+			Node node = new Node();
+			node.type = attrs.owner;
+			node.sharesRootMessage = attrs.get("message").owner.equals(md.type);
+			node.attrs = attrs;
+			node.annotation = annotation;
+			chain.add(node);
+		}
+		return chain;
+	}
+
+	private boolean _isRepeatableContainer(TypeElement annoType) {
+		for (ExecutableElement attr : ElementFilter.methodsIn(annoType.getEnclosedElements())) {
+			if (!attr.getSimpleName().contentEquals("value")) continue;
+			if (attr.getReturnType().getKind() != TypeKind.ARRAY) return false;
+			Element component = processingEnv.getTypeUtils()
+				.asElement(((ArrayType) attr.getReturnType()).getComponentType());
+			if (component == null || component.getKind() != ElementKind.ANNOTATION_TYPE) return false;
+			for (AnnotationMirror mirror : component.getAnnotationMirrors())
+				if (MetaDataResolver.nameOf(mirror).equals("java.lang.annotation.Repeatable"))
+					for (AnnotationValue av : mirror.getElementValues().values())
+						return processingEnv.getTypeUtils().isSameType((TypeMirror) av.getValue(), annoType.asType());
+			return false;
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<? extends AnnotationValue> _repeatedValuesOf(AnnotationMirror container) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+				: container.getElementValues().entrySet())
+			if (entry.getKey().getSimpleName().contentEquals("value"))
+				return (List<? extends AnnotationValue>) entry.getValue().getValue();
+		return Collections.emptyList();
+	}
+
+	private void _writeSource(TypeElement type, List<Entry> entries) {
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+			+ SUFFIX;
+		Literals literals = new Literals(processingEnv.getElementUtils(), processingEnv.getTypeUtils(),
+			processingEnv.getElementUtils().getPackageOf(type));
+		String typeName = literals.typeName(type.asType());
+		int levels = entries.stream().mapToInt(entry -> entry.level).max().getAsInt() + 1;
+		StringBuilder bder = new StringBuilder();
+		if (!packageName.isEmpty())
+			bder.append("package ").append(packageName).append(";\n\n");
+		bder.append("import java.lang.reflect.Field;\n");
+		bder.append("import java.lang.reflect.Method;\n");
+		bder.append("import java.util.ArrayList;\n");
+		bder.append("import java.util.List;\n\n");
+		bder.append("import org.springframework.core.ResolvableType;\n\n");
+		bder.append("import com.github.wautsns.utility.validation.core.criterion.Criterion;\n");
+		bder.append("import com.github.wautsns.utility.validation.core.criterion.Criterion.Definition;\n");
+		bder.append("import com.github.wautsns.utility.validation.core.validation.ValidationPlan;\n");
+		bder.append("import com.github.wautsns.utility.validation.core.validation.ValidationPlanProvider;\n\n");
+		bder.append("/**\n * {@link ").append(typeName).append("} 的校验计划, 由 {@code ")
+			.append(getClass().getSimpleName()).append("} 生成\n */\n");
+		bder.append("public final class ").append(simpleName).append(" implements ValidationPlanProvider {\n\n");
+		bder.append("\t@Override\n\tpublic Class<?> getType() {\n");
+		bder.append("\t\treturn ").append(typeName).append(".class;\n\t}\n\n");
+		bder.append("\t@Override\n\tpublic ValidationPlan newPlan() throws ReflectiveOperationException {\n");
+		bder.append("\t\tClass<?>[] types = new Class<?>[").append(levels).append("];\n");
+		bder.append("\t\ttypes[0] = ").append(typeName).append(".class;\n");
+		bder.append("\t\tfor (int i = 1; i < types.length; i++)\n");
+		bder.append("\t\t\ttypes[i] = types[i - 1].getSuperclass();\n");
+		bder.append("\t\tValidationPlan.Builder builder = ValidationPlan.builder(types[0]);\n");
+		for (int i = 0; i < entries.size(); i++)
+			bder.append("\t\t_entry").append(i).append("(builder, types);\n");
+		bder.append("\t\treturn builder.build();\n\t}\n");
+		for (int i = 0; i < entries.size(); i++)
+			_appendEntry(bder, i, entries.get(i), literals);
+		bder.append("\n}\n");
+		String qualifiedName = packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+			writer.write(bder.toString());
+		} catch (IOException e) {
+			throw new ProcessingException("写入 %s 失败: %s", qualifiedName, e);
+		}
+	}
+
+	private void _appendEntry(StringBuilder bder, int index, Entry entry, Literals literals) {
+		bder.append("\n\tprivate static void _entry").append(index)
+			.append("(ValidationPlan.Builder builder, Class<?>[] types) throws ReflectiveOperationException {\n");
+		String member;
+		String resolvableType;
+		if (entry.kind == ElementKind.FIELD) {
+			bder.append("\t\tField member = types[").append(entry.level).append("].getDeclaredField(")
+				.append(literals.valueOf(entry.name)).append(");\n");
+			member = "member";
+			resolvableType = "ResolvableType.forField(member)";
+		} else if (entry.kind == ElementKind.METHOD) {
+			bder.append("\t\tMethod member = types[").append(entry.level).append("].getDeclaredMethod(")
+				.append(literals.valueOf(entry.name)).append(");\n");
+			member = "member";
+			resolvableType = "ResolvableType.forMethodReturnType(member)";
+		} else {
+			member = "null";
+			resolvableType = "ResolvableType.forClass(types[0])";
+		}
+		bder.append("\t\tList<Definition[]> chains = new ArrayList<>(").append(entry.chains.size()).append(");\n");
+		bder.append("\t\tDefinition root;\n");
+		for (List<Node> chain : entry.chains) {
+			Node root = chain.get(0);
+			bder.append("\t\troot = ");
+			_appendDefinition(bder, root, literals);
+			bder.append(";\n");
+			bder.append("\t\tchains.add(new Definition[] {\n\t\t\troot");
+			for (Node node : chain.subList(1, chain.size())) {
+				bder.append(",\n\t\t\t");
+				if (node == root)
+					bder.append("root");
+				else
+					_appendDefinition(bder, node, literals);
+			}
+			bder.append(" });\n");
+		}
+		bder.append("\t\tbuilder.add(").append(member).append(", Criterion.Analyzer.analyze(")
+			.append(literals.valueOf(entry.position)).append(", ").append(resolvableType).append(", chains));\n");
+		bder.append("\t}\n");
+	}
+
+	private void _appendDefinition(StringBuilder bder, Node node, Literals literals) {
+		bder.append("new Definition(").append(literals.classOf(node.type.asType())).append(", ")
+			.append(node.sharesRootMessage).append(')');
+		for (Map.Entry<String, MetaAttr> attr : node.attrs.entrySet())
+			bder.append("\n\t\t\t\t.with(").append(literals.valueOf(attr.getKey())).append(", ")
+				.append(attr.getValue().getValue(node.annotation, processingEnv.getElementUtils())
+					.toSource(literals))
+				.append(')');
+	}
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.reactor;
+
+import java.util.function.Function;
+
+import com.github.wautsns.utility.validation.core.validation.BeanValidator;
+import com.github.wautsns.utility.validation.core.validation.VGroups;
+import com.github.wautsns.utility.validation.core.validation.VMode;
+
+/**
+ * 元素校验器, 不依赖 reactor
+ * 
+ * <p> 按元素的实际类型获取 {@link BeanValidator#of(Class, Class...)}, 即复用按类型缓存的校验计划,
+ * 并在校验器内按类型缓存, 每个元素只需一次 {@link ClassValue} 查找
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class ElementValidator<T> implements Function<T, Validated<T>> {
+
+	private final VMode mode;
+	private final ClassValue<BeanValidator> validators;
+
+	/**
+	 * @param mode 校验模式, 对每个元素分别生效
+	 * @param groups 组, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 */
+	public ElementValidator(VMode mode, Class<?>... groups) {
+		Class<?>[] copied = groups.clone();
+		this.mode = mode;
+		this.validators = new ClassValue<BeanValidator>() {
+			@Override
+			protected BeanValidator computeValue(Class<?> type) {
+				return BeanValidator.of(type, copied);
+			}
+		};
+	}
+
+	/**
+	 * 校验元素
+	 * 
+	 * @param element 元素, 不能为 {@code null}
+	 * @return 元素及其校验结果
+	 */
+	@Override
+	public Validated<T> apply(T element) {
+		return new Validated<>(element, validators.get(element.getClass()).validate(element, mode));
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.reactor;
+
+import java.util.function.Consumer;
+
+import org.reactivestreams.Publisher;
+
+import com.github.wautsns.utility.validation.core.validation.VGroups;
+import com.github.wautsns.utility.validation.core.validation.VMode;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 校验 {@link Flux} 与 {@link Mono} 中元素的操作符
+ * 
+ * <p> 所有操作均在上游发出元素的线程上同步校验, 不会切换线程, 并保留上游的背压:
+ * 被拒绝的元素会补充请求, 不会造成下游饥饿.
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public class ReactiveValidator<T> {
+
+	private final ElementValidator<T> validator;
+
+	public ReactiveValidator() {
+		this(VMode.COLLECT_ALL, VGroups.DEFAULT_GROUPS);
+	}
+
+	/**
+	 * @param mode 校验模式, 对每个元素分别生效
+	 * @param groups 组, 若为空则使用 {@link VGroups#DEFAULT_GROUPS}
+	 */
+	public ReactiveValidator(VMode mode, Class<?>... groups) {
+		this.validator = new ElementValidator<>(mode, groups);
+	}
+
+	/**
+	 * 将每个元素映射为其校验结果
+	 * 
+	 * @param source 上游
+	 * @return 校验结果
+	 */
+	public Flux<Validated<T>> validate(Publisher<? extends T> source) {
+		return Flux.<T>from(source).map(validator);
+	}
+
+	public Mono<Validated<T>> validate(Mono<? extends T> source) {
+		return source.map(validator::apply);
+	}
+
+	/**
+	 * 仅保留合法的元素, 被拒绝的元素交给 {@code onRejected}
+	 * 
+	 * @param source 上游
+	 * @param onRejected 被拒绝元素的处理器, 在校验线程上同步调用
+	 * @return 合法的元素
+	 */
+	public Flux<T> filter(Publisher<? extends T> source, Consumer<? super Validated<T>> onRejected) {
+		return Flux.<T>from(source).handle((element, sink) -> {
+			Validated<T> validated = validator.apply(element);
+			if (validated.isValid())
+				sink.next(element);
+			else
+				onRejected.accept(validated);
+		});
+	}
+
+	public Mono<T> filter(Mono<? extends T> source, Consumer<? super Validated<T>> onRejected) {
+		return source.<T>handle((element, sink) -> {
+			Validated<T> validated = validator.apply(element);
+			if (validated.isValid())
+				sink.next(element);
+			else
+				onRejected.accept(validated);
+		});
+	}
+
+	/**
+	 * 将元素拆分为合法与被拒绝的两条流
+	 * 
+	 * <p> 上游只会被订阅一次, 在两条流均被订阅后才开始发出元素, 背压取两者中较慢的一方.
+	 * 因此两条流都必须被订阅, 且不应在其中一条上阻塞等待另一条.
+	 * 
+	 * @param source 上游, 可以是 {@link Mono}
+	 * @return 拆分结果
+	 */
+	public Split<T> split(Publisher<? extends T> source) {
+		Flux<Validated<T>> shared = validate(source).publish().autoConnect(2);
+		return new Split<>(
+			shared.filter(Validated::isValid).map(Validated::getValue),
+			shared.filter(validated -> !validated.isValid()));
+	}
+
+	public static class Split<T> {
+
+		private final Flux<T> valid;
+		private final Flux<Validated<T>> rejected;
+
+		private Split(Flux<T> valid, Flux<Validated<T>> rejected) {
+			this.valid = valid;
+			this.rejected = rejected;
+		}
+
+		/**
+		 * 获取合法的元素
+		 * 
+		 * @return 合法的元素
+		 */
+		public Flux<T> valid() {
+			return valid;
+		}
+
+		/**
+		 * 获取被拒绝的元素及其违规信息
+		 * 
+		 * @return 被拒绝的元素
+		 */
+		public Flux<Validated<T>> rejected() {
+			return rejected;
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.utility.validation.reactor;
+
+import java.util.List;
+
+import com.github.wautsns.utility.validation.core.criterion.CriterionViolation;
+
+/**
+ * 元素及其校验结果
+ *
+ * @author wautsns
+ * @version 0.1.0 Mar 12, 2019
+ */
+public final class Validated<T> {
+
+	private final T value;
+	private final List<CriterionViolation> violations;
+
+	Validated(T value, List<CriterionViolation> violations) {
+		this.value = value;
+		this.violations = violations;
+	}
+
+	public T getValue() {
+		return value;
+	}
+
+	/**
+	 * 获取违规信息
+	 * 
+	 * @return 违规信息, 合法时为共享的不可变空列表
+	 */
+	public List<CriterionViolation> getViolations() {
+		return violations;
+	}
+
+	public boolean isValid() {
+		return violations.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("{value: %s, violations: %s}", value, violations);
+	}
+
+}